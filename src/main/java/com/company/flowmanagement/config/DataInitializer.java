@@ -3,7 +3,14 @@ package com.company.flowmanagement.config;
 import com.company.flowmanagement.model.Employee;
 import com.company.flowmanagement.model.User;
 import com.company.flowmanagement.repository.EmployeeRepository;
+import com.company.flowmanagement.repository.O2DConfigRepository;
 import com.company.flowmanagement.repository.UserRepository;
+import com.company.flowmanagement.service.FmsStepInstanceService;
+import com.company.flowmanagement.service.InboxProjectionService;
+import com.company.flowmanagement.service.OrderEntryService;
+import com.company.flowmanagement.service.OrderFieldKeyMigration;
+import com.company.flowmanagement.service.OverdueSweeper;
+import com.company.flowmanagement.service.TaskService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,6 +42,49 @@ public class DataInitializer {
         };
     }
 
+    @Bean
+    public CommandLineRunner verifyIndexes(IndexCatalog indexCatalog) {
+        return args -> {
+            indexCatalog.ensureIndexes();
+            // Any repository query still scanning a whole collection is logged
+            indexCatalog.verifyQueryPlans();
+        };
+    }
+
+    @Bean
+    public CommandLineRunner backfillReadModels(InboxProjectionService inboxProjectionService,
+            OrderFieldKeyMigration orderFieldKeyMigration, OrderEntryService orderEntryService,
+            FmsStepInstanceService fmsStepInstanceService) {
+        return args -> {
+            // Inbox first: step instances created below project themselves
+            inboxProjectionService.backfillIfEmpty();
+            // Order entries saved before field keys were canonicalized, before anything copies them
+            orderFieldKeyMigration.migrate();
+            // Latest order versions before the step instances, which read their names
+            orderEntryService.backfillIfEmpty();
+            // Orders planned before per-order step instances existed
+            fmsStepInstanceService.backfillIfEmpty();
+        };
+    }
+
+    @Bean
+    public CommandLineRunner seedSequences(TaskService taskService) {
+        // TASK-nnn IDs issued by the old count()-based generator
+        return args -> taskService.seedTaskSequence();
+    }
+
+    @Bean
+    public CommandLineRunner versionFolders(O2DConfigRepository o2dConfigRepository) {
+        // Folders saved before O2DConfig had a @Version field
+        return args -> o2dConfigRepository.stampMissingVersions();
+    }
+
+    @Bean
+    public CommandLineRunner backfillEpochDays(OverdueSweeper overdueSweeper) {
+        // Tasks, step instances and planning entries written before dueDay / startDay were stored
+        return args -> overdueSweeper.backfillEpochDays();
+    }
+
     private void seedSampleEmployeeIfEmpty(EmployeeRepository employeeRepository,
             UserRepository userRepository,
             PasswordEncoder passwordEncoder) {
@@ -0,0 +1,226 @@
+package com.company.flowmanagement.config;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Managed catalog of the indexes behind the repository queries of the
+ * collections without index annotations (tasks also carries some on the
+ * model), plus one explain probe per derived / @Query repository method.
+ *
+ * <p>At startup {@link #ensureIndexes()} creates missing indexes and drops
+ * retired ones; {@link #verifyQueryPlans()} explains every probe and logs
+ * the queries whose winning plan still contains a COLLSCAN. Add an entry
+ * here together with any new repository query.
+ */
+@Component
+public class IndexCatalog {
+
+    private static final List<IndexSpec> INDEXES = List.of(
+            // tasks (assignedTo_created_id, assignedBy_created_id, status_due and
+            // recurrence_occurrence are declared on Task)
+            new IndexSpec("tasks", "taskId", "{ taskId: 1 }"),
+            new IndexSpec("tasks", "status_created", "{ status: 1, createdAt: -1 }"),
+            new IndexSpec("tasks", "project_created", "{ projectId: 1, createdAt: -1 }"),
+            new IndexSpec("tasks", "clientOrg_created", "{ clientOrgId: 1, createdAt: -1 }"),
+            new IndexSpec("tasks", "isRepeatable", "{ isRepeatable: 1 }"),
+
+            new IndexSpec("order_entries", "folder_created", "{ folderId: 1, createdAt: -1 }"),
+
+            new IndexSpec("planning_entries", "folder_created", "{ folderId: 1, createdAt: 1 }"),
+
+            // Not unique: older data may hold duplicate usernames (see DataInitializer)
+            new IndexSpec("users", "username", "{ username: 1 }"),
+            new IndexSpec("users", "role", "{ role: 1 }"),
+
+            new IndexSpec("employees", "adminId", "{ adminId: 1 }"),
+            new IndexSpec("employees", "name", "{ name: 1 }"));
+
+    // Indexes replaced by a wider one, or whose query is gone (latest version
+    // of an order: latest_order_entries by _id; a user's FMS steps: inbox_items)
+    private static final List<String[]> RETIRED = List.<String[]>of(
+            new String[] { "inbox_items", "owner_kind_created" },
+            new String[] { "fms_step_instances", "assignee_status_target" },
+            new String[] { "order_entries", "folder_order_created" });
+
+    // One probe per repository query: filter and sort as the repository sends them
+    private static final List<QueryProbe> PROBES = List.of(
+            new QueryProbe("TaskRepository.findByAssignedToIdOrderByCreatedAtDesc", "tasks",
+                    "{ assignedToId: 'x' }", "{ createdAt: -1 }"),
+            new QueryProbe("TaskRepository.findByAssignedByIdOrderByCreatedAtDesc", "tasks",
+                    "{ assignedById: 'x' }", "{ createdAt: -1 }"),
+            new QueryProbe("TaskRepository.findByStatusOrderByCreatedAtDesc", "tasks",
+                    "{ status: 'x' }", "{ createdAt: -1 }"),
+            new QueryProbe("TaskRepository.findByProjectIdOrderByCreatedAtDesc", "tasks",
+                    "{ projectId: 'x' }", "{ createdAt: -1 }"),
+            new QueryProbe("TaskRepository.findByClientOrgIdOrderByCreatedAtDesc", "tasks",
+                    "{ clientOrgId: 'x' }", "{ createdAt: -1 }"),
+            new QueryProbe("TaskRepository.streamByClientOrgIdForUser", "tasks",
+                    "{ clientOrgId: 'x', $or: [ { assignedToId: 'u' }, { assignedById: 'u' } ] }",
+                    "{ createdAt: -1 }"),
+            new QueryProbe("TaskRepository.findByTaskId", "tasks", "{ taskId: 'x' }", null),
+            new QueryProbe("TaskRepository.findByTaskIdIn", "tasks", "{ taskId: { $in: ['x', 'y'] } }", null),
+            new QueryProbe("TaskRepository.findActiveTasksByAssignedToId", "tasks",
+                    "{ assignedToId: 'x', status: { $ne: 'Completed' } }", null),
+            new QueryProbe("TaskRepository.findCompletedTasksByAssignedToId", "tasks",
+                    "{ assignedToId: 'x', status: 'Completed' }", null),
+            new QueryProbe("TaskRepository.findDelegatedTasksByAssignedById", "tasks",
+                    "{ assignedById: 'x', assignedToId: { $ne: 'x' } }", null),
+            new QueryProbe("TaskRepository.findAllTaskIds", "tasks", "{ taskId: { $regex: '^TASK-' } }", null),
+            new QueryProbe("TaskRepository.findRecurrenceRules", "tasks", "{ isRepeatable: true }", null),
+            new QueryProbe("TaskRepository.findOccurrences", "tasks",
+                    "{ recurrenceOf: { $in: ['x'] }, occurrenceDay: { $gte: 1, $lte: 2 } }", null),
+            new QueryProbe("TaskRepository.countByStatus", "tasks", "{ status: 'x' }", null),
+            new QueryProbe("TaskRepository.findOverdueTasks", "tasks",
+                    "{ dueDay: { $lt: 1 }, status: { $ne: 'Completed' } }", null),
+            new QueryProbe("TaskRepository.findTasksDueByDate", "tasks",
+                    "{ dueDay: { $lte: 1 }, status: { $ne: 'Completed' } }", null),
+
+            new QueryProbe("OrderEntryRepository.findByFolderIdOrderByCreatedAtDesc", "order_entries",
+                    "{ folderId: 'x' }", "{ createdAt: -1 }"),
+            new QueryProbe("OrderEntryRepository.setField", "order_entries", "{ _id: 'x' }", null),
+
+            new QueryProbe("LatestOrderEntryRepository.findAllById", "latest_order_entries",
+                    "{ _id: { $in: ['x:1', 'x:2'] } }", null),
+            new QueryProbe("LatestOrderEntryRepository.advance", "latest_order_entries", "{ _id: 'x:1' }", null),
+            new QueryProbe("LatestOrderEntryRepository.findGridPage", "latest_order_entries",
+                    "{ folderId: 'x', customerName: { $regex: '^a', $options: 'i' } }", "{ createdAt: -1, _id: -1 }"),
+            new QueryProbe("LatestOrderEntryRepository.findGridPage(status)", "latest_order_entries",
+                    "{ folderId: 'x', planningStatus: 'Pending' }", "{ createdAt: -1, _id: -1 }"),
+            new QueryProbe("LatestOrderEntryRepository.findGridPage(orderId)", "latest_order_entries",
+                    "{ folderId: 'x', orderId: { $gt: 'O2D-1' } }", "{ orderId: 1 }"),
+            new QueryProbe("LatestOrderEntryRepository.search", "latest_order_entries",
+                    "{ searchTerms: { $all: ['acm', 'ind'] } }", "{ createdAt: -1 }"),
+            new QueryProbe("LatestOrderEntryRepository.countByFolderId", "latest_order_entries",
+                    "{ folderId: 'x' }", null),
+            new QueryProbe("LatestOrderEntryRepository.findFirstByFolderIdOrderByCreatedAtDesc",
+                    "latest_order_entries", "{ folderId: 'x' }", "{ createdAt: -1 }"),
+            new QueryProbe("LatestOrderEntryRepository.findOrderIdsByFolderIdAndPlanningStatus",
+                    "latest_order_entries", "{ folderId: 'x', planningStatus: 'Pending' }", "{ createdAt: -1 }"),
+            new QueryProbe("LatestOrderEntryRepository.streamFolder", "latest_order_entries",
+                    "{ folderId: 'x' }", "{ createdAt: -1, _id: -1 }"),
+
+            new QueryProbe("PlanningEntryRepository.findByFolderIdOrderByCreatedAtAsc", "planning_entries",
+                    "{ folderId: 'x' }", "{ createdAt: 1 }"),
+            new QueryProbe("PlanningEntryRepository.streamFolder", "planning_entries",
+                    "{ folderId: 'x' }", "{ createdAt: 1 }"),
+
+            new QueryProbe("UserRepository.findByUsername", "users", "{ username: 'x' }", null),
+            new QueryProbe("UserRepository.findByUsernameIn", "users", "{ username: { $in: ['x', 'y'] } }", null),
+            new QueryProbe("UserRepository.findPasswordRowsByUsernameIn", "users",
+                    "{ username: { $in: ['x', 'y'] } }", null),
+            new QueryProbe("UserRepository.findByRole", "users", "{ role: 'x' }", null),
+            new QueryProbe("UserRepository.deleteByUsername", "users", "{ username: 'x' }", null),
+
+            new QueryProbe("EmployeeRepository.findAllByOrderById", "employees", "{}", "{ _id: 1 }"),
+            new QueryProbe("EmployeeRepository.findByAdminId", "employees", "{ adminId: 'x' }", null),
+            new QueryProbe("EmployeeRepository.findRowsByAdminId", "employees", "{ adminId: 'x' }", null),
+            new QueryProbe("EmployeeRepository.findByName", "employees", "{ name: 'x' }", null));
+
+    private final MongoTemplate mongoTemplate;
+
+    public IndexCatalog(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void ensureIndexes() {
+        for (IndexSpec spec : INDEXES) {
+            try {
+                mongoTemplate.indexOps(spec.collection).createIndex(spec.definition());
+            } catch (RuntimeException e) {
+                System.err.println("IndexCatalog: could not create " + spec.collection + "." + spec.name + ": "
+                        + e.getMessage());
+            }
+        }
+        for (String[] retired : RETIRED) {
+            IndexOperations ops = mongoTemplate.indexOps(retired[0]);
+            for (IndexInfo info : ops.getIndexInfo()) {
+                if (info.getName().equals(retired[1])) {
+                    ops.dropIndex(retired[1]);
+                }
+            }
+        }
+    }
+
+    // Log every probe whose winning plan scans the whole collection
+    public void verifyQueryPlans() {
+        int collscans = 0;
+        for (QueryProbe probe : PROBES) {
+            try {
+                var find = mongoTemplate.getCollection(probe.collection).find(Document.parse(probe.filter));
+                if (probe.sort != null) {
+                    find = find.sort(Document.parse(probe.sort));
+                }
+                Document plan = find.explain().get("queryPlanner", Document.class);
+                Object winningPlan = plan != null ? plan.get("winningPlan") : null;
+                if (containsStage(winningPlan, "COLLSCAN")) {
+                    collscans++;
+                    System.err.println("IndexCatalog: COLLSCAN for " + probe.query + " on " + probe.collection
+                            + " " + probe.filter);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("IndexCatalog: could not explain " + probe.query + ": " + e.getMessage());
+            }
+        }
+        System.out.println("IndexCatalog: " + PROBES.size() + " repository queries explained, " + collscans
+                + " collection scans");
+    }
+
+    // Walks the plan tree (inputStage / inputStages / queryPlan) looking for a stage
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.getString("stage"))) {
+                return true;
+            }
+            for (Object child : document.values()) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class IndexSpec {
+        private final String collection;
+        private final String name;
+        private final String keys;
+
+        private IndexSpec(String collection, String name, String keys) {
+            this.collection = collection;
+            this.name = name;
+            this.keys = keys;
+        }
+
+        private IndexDefinition definition() {
+            return new CompoundIndexDefinition(Document.parse(keys)).named(name);
+        }
+    }
+
+    private static final class QueryProbe {
+        private final String query;
+        private final String collection;
+        private final String filter;
+        private final String sort;
+
+        private QueryProbe(String query, String collection, String filter, String sort) {
+            this.query = query;
+            this.collection = collection;
+            this.filter = filter;
+            this.sort = sort;
+        }
+    }
+}
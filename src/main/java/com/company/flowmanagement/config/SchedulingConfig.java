@@ -0,0 +1,10 @@
+package com.company.flowmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (see OverdueSweeper)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
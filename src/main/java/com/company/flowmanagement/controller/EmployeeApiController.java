@@ -1,6 +1,8 @@
 package com.company.flowmanagement.controller;
 
 import com.company.flowmanagement.model.Employee;
+import com.company.flowmanagement.model.EmployeeRow;
+import com.company.flowmanagement.model.UserPasswordRow;
 import com.company.flowmanagement.repository.EmployeeRepository;
 import com.company.flowmanagement.repository.O2DConfigRepository;
 import com.company.flowmanagement.service.EmployeeService;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,19 +44,28 @@ public class EmployeeApiController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("User not found");
         }
 
-        // Filter employees by adminId
-        List<Employee> employees = employeeRepository.findByAdminId(admin.getId());
+        // Filter employees by adminId (only the columns of the employee table)
+        List<EmployeeRow> employees = employeeRepository.findRowsByAdminId(admin.getId());
 
-        // Attach display password for UI toggle (uses stored raw password when available)
-        for (Employee emp : employees) {
-            String displayPwd = EmployeeService.DEFAULT_EMPLOYEE_PASSWORD;
+        // Attach display password for UI toggle (uses stored raw password when available),
+        // reading the users of all rows in one query
+        List<String> names = new ArrayList<>();
+        for (EmployeeRow emp : employees) {
             if (emp.getName() != null) {
-                com.company.flowmanagement.model.User user = userRepository.findByUsername(emp.getName());
-                if (user != null && user.getRawPassword() != null && !user.getRawPassword().isBlank()) {
-                    displayPwd = user.getRawPassword();
+                names.add(emp.getName());
+            }
+        }
+        Map<String, String> rawPasswords = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (UserPasswordRow user : userRepository.findPasswordRowsByUsernameIn(names)) {
+                if (user.getRawPassword() != null && !user.getRawPassword().isBlank()) {
+                    rawPasswords.putIfAbsent(user.getUsername(), user.getRawPassword());
                 }
             }
-            emp.setPassword(displayPwd);
+        }
+        for (EmployeeRow emp : employees) {
+            String displayPwd = emp.getName() != null ? rawPasswords.get(emp.getName()) : null;
+            emp.setPassword(displayPwd != null ? displayPwd : EmployeeService.DEFAULT_EMPLOYEE_PASSWORD);
         }
 
         // Filter FMS folders by permissions (ADMIN_FMS:{id})
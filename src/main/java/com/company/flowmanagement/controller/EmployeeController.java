@@ -1,9 +1,17 @@
 package com.company.flowmanagement.controller;
 
 import com.company.flowmanagement.model.Employee;
+import com.company.flowmanagement.model.EpochDays;
 import com.company.flowmanagement.model.O2DConfig;
 import com.company.flowmanagement.repository.EmployeeRepository;
 import com.company.flowmanagement.repository.O2DConfigRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 
 import java.util.List;
 import java.util.Optional;
+import com.company.flowmanagement.model.LatestOrderEntry;
 import com.company.flowmanagement.model.OrderEntry;
 import com.company.flowmanagement.model.PlanningEntry;
 import com.company.flowmanagement.repository.OrderEntryRepository;
@@ -20,16 +29,27 @@ import com.company.flowmanagement.repository.PlanningEntryRepository;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import com.company.flowmanagement.service.ExportService;
+import com.company.flowmanagement.service.FmsStepInstanceService;
+import com.company.flowmanagement.service.FolderBoard;
+import com.company.flowmanagement.service.FolderBoardCache;
+import com.company.flowmanagement.service.OrderEntryService;
+import com.company.flowmanagement.service.OrderImportJob;
+import com.company.flowmanagement.service.OrderImportService;
+import com.company.flowmanagement.service.PageAssembler;
 import com.company.flowmanagement.service.TaskService;
 import com.company.flowmanagement.repository.UserRepository;
-import com.company.flowmanagement.model.User;
 import com.company.flowmanagement.model.Task;
-import com.company.flowmanagement.model.ProcessStep;
-import java.time.LocalDate;
 
 @Controller
 @RequestMapping("/employee")
@@ -41,20 +61,42 @@ public class EmployeeController {
     private final PlanningEntryRepository planningEntryRepository;
     private final TaskService taskService;
     private final UserRepository userRepository;
+    private final FmsStepInstanceService fmsStepInstanceService;
+    private final OrderEntryService orderEntryService;
+    private final OrderImportService orderImportService;
+    private final ExportService exportService;
+    private final FolderBoardCache folderBoardCache;
+    private final PageAssembler pageAssembler;
 
     private final com.company.flowmanagement.service.EmployeeService employeeService;
 
+    private final boolean lazySections;
+
+    private static final int SECTION_PAGE_SIZE = 50;
+    private static final int ORDER_GRID_PAGE_SIZE = 100;
+
     public EmployeeController(EmployeeRepository employeeRepository, O2DConfigRepository o2dConfigRepository,
             OrderEntryRepository orderEntryRepository, PlanningEntryRepository planningEntryRepository,
             TaskService taskService, UserRepository userRepository,
-            com.company.flowmanagement.service.EmployeeService employeeService) {
+            FmsStepInstanceService fmsStepInstanceService, OrderEntryService orderEntryService,
+            OrderImportService orderImportService, ExportService exportService,
+            FolderBoardCache folderBoardCache,
+            PageAssembler pageAssembler, com.company.flowmanagement.service.EmployeeService employeeService,
+            @Value("${page.lazy-sections:false}") boolean lazySections) {
         this.employeeRepository = employeeRepository;
         this.o2dConfigRepository = o2dConfigRepository;
         this.orderEntryRepository = orderEntryRepository;
         this.planningEntryRepository = planningEntryRepository;
         this.taskService = taskService;
         this.userRepository = userRepository;
+        this.fmsStepInstanceService = fmsStepInstanceService;
+        this.orderEntryService = orderEntryService;
+        this.orderImportService = orderImportService;
+        this.exportService = exportService;
+        this.folderBoardCache = folderBoardCache;
+        this.pageAssembler = pageAssembler;
         this.employeeService = employeeService;
+        this.lazySections = lazySections;
     }
 
     @GetMapping("/dashboard")
@@ -82,147 +124,119 @@ public class EmployeeController {
             Model model, Authentication authentication) {
 
         String username = authentication.getName();
-        model.addAllAttributes(employeeService.getEmployeeContext(username));
-        model.addAttribute("superadminView", false);
-        model.addAttribute("orderEntryBasePath", "/employee/order-entry");
-        model.addAttribute("orderEntryEntryPath", "/employee/order-entry/entry");
-        model.addAttribute("orderEntryPlanningPath", "/employee/order-entry/planning");
-        model.addAttribute("orderEntryPlanningStatusPath", "/employee/order-entry/planning-status");
-        model.addAttribute("orderEntryFetchEntryPath", "/employee/order-entry/entry");
-
-        O2DConfig config = null;
-        if (folderId != null && !folderId.isBlank()) {
-            config = o2dConfigRepository.findById(folderId).orElse(null);
-        }
-        if (config == null) {
-            List<O2DConfig> all = o2dConfigRepository.findAll();
-            if (!all.isEmpty()) {
-                config = all.get(0);
+        try (PageAssembler.Assembly page = pageAssembler.begin()) {
+            // The employee context loads while the folder's entries are read
+            var context = page.fork(() -> employeeService.getEmployeeContext(username));
+            model.addAttribute("superadminView", false);
+            model.addAttribute("orderEntryBasePath", "/employee/order-entry");
+            model.addAttribute("orderEntryEntryPath", "/employee/order-entry/entry");
+            model.addAttribute("orderEntryPlanningPath", "/employee/order-entry/planning");
+            model.addAttribute("orderEntryPlanningStatusPath", "/employee/order-entry/planning-status");
+            model.addAttribute("orderEntryFetchEntryPath", "/employee/order-entry/entry");
+            model.addAttribute("orderEntryRowsPath", "/employee/order-entry/rows");
+            model.addAttribute("orderEntrySearchPath", "/employee/order-entry/search");
+            model.addAttribute("orderEntryImportPath", "/employee/order-entry/import");
+            model.addAttribute("orderEntryExportPath", "/employee/order-entry/export");
+            model.addAttribute("planningExportPath", "/employee/order-entry/planning/export");
+
+            O2DConfig config = null;
+            if (folderId != null && !folderId.isBlank()) {
+                config = o2dConfigRepository.findById(folderId).orElse(null);
             }
-        }
-
-        if (config != null) {
-            model.addAttribute("orderDetails", config.getOrderDetails());
-            model.addAttribute("selectedFolderId", config.getId());
-            model.addAttribute("configOrderId", config.getOrderId());
-            model.addAttribute("configCustomerName", config.getCustomerName());
-            model.addAttribute("configCompanyName", config.getCompanyName());
-            model.addAttribute("configRawMaterial", config.getRawMaterial());
-            model.addAttribute("configQuantity", config.getQuantity());
-            model.addAttribute("configCDD", config.getCDD());
-            model.addAttribute("configMPD", config.getMPD());
-            model.addAttribute("configStartDate", config.getStartDate());
-            model.addAttribute("processDetails", config.getProcessDetails());
-
-            List<String> responsibleOptions = new ArrayList<>();
-            for (var step : config.getProcessDetails()) {
-                if (step.getResponsiblePerson() != null && !step.getResponsiblePerson().isBlank()) {
-                    String value = step.getResponsiblePerson().trim();
-                    if (!responsibleOptions.contains(value)) {
-                        responsibleOptions.add(value);
-                    }
+            if (config == null) {
+                List<O2DConfig> all = o2dConfigRepository.findAll();
+                if (!all.isEmpty()) {
+                    config = all.get(0);
                 }
             }
-            if (responsibleOptions.isEmpty()) {
-                responsibleOptions.add("Employee");
-            }
-            model.addAttribute("responsibleOptions", responsibleOptions);
-
-            List<OrderEntry> entries = orderEntryRepository.findByFolderIdOrderByCreatedAtDesc(config.getId());
-            model.addAttribute("orderEntries", entries);
-            model.addAttribute("totalOrders", entries.size());
-            model.addAttribute("completedOrders", 0);
-            model.addAttribute("pendingOrders", entries.size());
-
-            List<Map<String, Object>> entryRows = new ArrayList<>();
-            int sr = 1;
-            List<String> pendingOrderIds = new ArrayList<>();
-            for (OrderEntry entry : entries) {
-                Map<String, Object> row = new LinkedHashMap<>();
-                row.put("sr", sr++);
-                row.put("entryId", entry.getId());
-                row.put("orderId", entry.getOrderId());
-                List<String> values = new ArrayList<>();
-                if (config.getOrderDetails() != null) {
-                    for (String detail : config.getOrderDetails()) {
-                        String normalizedDetail = normalizeKey(detail);
-                        String value = "";
-                        if (entry.getFields() != null) {
-                            if (entry.getFields().containsKey(normalizedDetail)) {
-                                value = entry.getFields().get(normalizedDetail);
-                            } else {
-                                for (Map.Entry<String, String> field : entry.getFields().entrySet()) {
-                                    if (normalizeKey(field.getKey()).equals(normalizedDetail)) {
-                                        value = field.getValue();
-                                        break;
-                                    }
-                                }
-                            }
+
+            if (config != null) {
+                model.addAttribute("orderDetails", config.getOrderDetails());
+                model.addAttribute("selectedFolderId", config.getId());
+                model.addAttribute("configOrderId", config.getOrderId());
+                model.addAttribute("configCustomerName", config.getCustomerName());
+                model.addAttribute("configCompanyName", config.getCompanyName());
+                model.addAttribute("configRawMaterial", config.getRawMaterial());
+                model.addAttribute("configQuantity", config.getQuantity());
+                model.addAttribute("configCDD", config.getCDD());
+                model.addAttribute("configMPD", config.getMPD());
+                model.addAttribute("configStartDate", config.getStartDate());
+                model.addAttribute("processDetails", config.getProcessDetails());
+
+                List<String> responsibleOptions = new ArrayList<>();
+                for (var step : config.getProcessDetails()) {
+                    if (step.getResponsiblePerson() != null && !step.getResponsiblePerson().isBlank()) {
+                        String value = step.getResponsiblePerson().trim();
+                        if (!responsibleOptions.contains(value)) {
+                            responsibleOptions.add(value);
                         }
-                        values.add(value == null ? "" : value);
                     }
                 }
-                row.put("values", values);
-                row.put("customerName", findFieldValue(entry.getFields(), "Customer Name", "customer_name"));
-                row.put("companyName", findFieldValue(entry.getFields(), "Company Name", "company_name"));
-                String planningStatus = findFieldValue(entry.getFields(), "Planning Status", "planning_status");
-                if (planningStatus == null || planningStatus.isBlank() || "-".equals(planningStatus)) {
-                    planningStatus = "Pending";
+                if (responsibleOptions.isEmpty()) {
+                    responsibleOptions.add("Employee");
                 }
-                row.put("planningStatus", planningStatus);
-                if ("Pending".equalsIgnoreCase(planningStatus) && entry.getOrderId() != null
-                        && !entry.getOrderId().isBlank()) {
-                    String orderId = entry.getOrderId().trim();
-                    if (!pendingOrderIds.contains(orderId)) {
-                        pendingOrderIds.add(orderId);
+                model.addAttribute("responsibleOptions", responsibleOptions);
+
+                // The grid pages through the orders itself (orderRows); the page only needs
+                // the counts, the pending orders and the planning entries, loaded concurrently
+                String configId = config.getId();
+                var totalSection = page.fork(() -> orderEntryService.countOrders(configId));
+                var pendingSection = page.fork(
+                        () -> orderEntryService.orderIdsWithStatus(configId, LatestOrderEntry.STATUS_PENDING));
+                var planningSection = page.fork(
+                        () -> planningEntryRepository.findByFolderIdOrderByCreatedAtAsc(configId));
+                long totalOrders = totalSection.join();
+                List<String> pendingOrderIds = pendingSection.join();
+                model.addAttribute("totalOrders", totalOrders);
+                model.addAttribute("completedOrders", totalOrders - pendingOrderIds.size());
+                model.addAttribute("pendingOrders", pendingOrderIds.size());
+                model.addAttribute("pendingOrderIds", pendingOrderIds);
+                model.addAttribute("orderGridPageSize", ORDER_GRID_PAGE_SIZE);
+                if (entryId != null && !entryId.isBlank()) {
+                    OrderEntry selected = orderEntryRepository.findById(entryId).orElse(null);
+                    if (selected != null) {
+                        model.addAttribute("selectedEntry", selected);
+                        model.addAttribute("selectedEntryFields", selected.getFields());
+                    }
+                } else {
+                    LatestOrderEntry latest = planOrderId != null && !planOrderId.isBlank()
+                            ? orderEntryService.latest(configId, planOrderId.trim())
+                            : orderEntryService.newest(configId);
+                    if (latest != null) {
+                        OrderEntry selected = latest.toOrderEntry();
+                        model.addAttribute("selectedEntry", selected);
+                        model.addAttribute("selectedEntryFields", selected.getFields());
                     }
                 }
-                entryRows.add(row);
-            }
-            model.addAttribute("orderEntryRows", entryRows);
-            model.addAttribute("pendingOrderIds", pendingOrderIds);
-            if (entryId != null && !entryId.isBlank()) {
-                OrderEntry selected = orderEntryRepository.findById(entryId).orElse(null);
-                if (selected != null) {
-                    model.addAttribute("selectedEntry", selected);
-                    model.addAttribute("selectedEntryFields", selected.getFields());
-                }
-            } else if (planOrderId != null && !planOrderId.isBlank()) {
-                OrderEntry selected = orderEntryRepository
-                        .findFirstByFolderIdAndOrderIdOrderByCreatedAtDesc(config.getId(), planOrderId.trim());
-                if (selected != null) {
-                    model.addAttribute("selectedEntry", selected);
-                    model.addAttribute("selectedEntryFields", selected.getFields());
-                }
-            } else if (!entries.isEmpty()) {
-                OrderEntry latest = entries.get(0);
-                model.addAttribute("selectedEntry", latest);
-                model.addAttribute("selectedEntryFields", latest.getFields());
-            }
 
-            List<PlanningEntry> planningEntries = planningEntryRepository
-                    .findByFolderIdOrderByCreatedAtAsc(config.getId());
-            List<Map<String, Object>> planningBlocks = new ArrayList<>();
-            for (PlanningEntry planningEntry : planningEntries) {
-                Map<String, Object> block = new LinkedHashMap<>();
-                String planningOrderId = planningEntry.getOrderId();
-                String planningStart = planningEntry.getStartDate();
-                block.put("orderId", planningOrderId);
-                block.put("startDate", planningStart);
-
-                OrderEntry entryForPlan = null;
-                if (planningOrderId != null && !planningOrderId.isBlank()) {
-                    entryForPlan = orderEntryRepository
-                            .findFirstByFolderIdAndOrderIdOrderByCreatedAtDesc(config.getId(), planningOrderId.trim());
+                List<PlanningEntry> planningEntries = planningSection.join();
+                // Latest version of the planned orders only, in one query
+                Set<String> plannedOrderIds = new LinkedHashSet<>();
+                for (PlanningEntry planningEntry : planningEntries) {
+                    if (planningEntry.getOrderId() != null && !planningEntry.getOrderId().isBlank()) {
+                        plannedOrderIds.add(planningEntry.getOrderId().trim());
+                    }
                 }
-                Map<String, String> entryFields = entryForPlan != null ? entryForPlan.getFields() : null;
-                block.put("customerName", findFieldValue(entryFields, "Customer Name", "customer_name"));
-                block.put("companyName", findFieldValue(entryFields, "Company Name", "company_name"));
-
-                List<Map<String, String>> rows = new ArrayList<>();
-                if (planningStart != null && !planningStart.isBlank()) {
-                    try {
-                        var startDate = java.time.LocalDate.parse(planningStart.trim());
+                Map<String, LatestOrderEntry> latestByOrderId = orderEntryService.latestByOrderId(configId,
+                        plannedOrderIds);
+                List<Map<String, Object>> planningBlocks = new ArrayList<>();
+                for (PlanningEntry planningEntry : planningEntries) {
+                    Map<String, Object> block = new LinkedHashMap<>();
+                    String planningOrderId = planningEntry.getOrderId();
+                    String planningStart = planningEntry.getStartDate();
+                    block.put("orderId", planningOrderId);
+                    block.put("startDate", planningStart);
+
+                    LatestOrderEntry entryForPlan = null;
+                    if (planningOrderId != null && !planningOrderId.isBlank()) {
+                        entryForPlan = latestByOrderId.get(planningOrderId.trim());
+                    }
+                    block.put("customerName", entryForPlan != null ? entryForPlan.getCustomerName() : "-");
+                    block.put("companyName", entryForPlan != null ? entryForPlan.getCompanyName() : "-");
+
+                    List<Map<String, String>> rows = new ArrayList<>();
+                    Integer startDay = planningEntry.getStartDay();
+                    if (startDay != null) {
                         int planningSr = 1;
                         for (var step : config.getProcessDetails()) {
                             var row = new LinkedHashMap<String, String>();
@@ -231,22 +245,18 @@ public class EmployeeController {
                             row.put("responsiblePerson", step.getResponsiblePerson());
                             row.put("targetType", step.getTargetType());
                             row.put("days", step.getDays() == null ? "" : String.valueOf(step.getDays()));
-                            if (step.getDays() != null) {
-                                row.put("targetDate", startDate.plusDays(step.getDays()).toString());
-                            } else {
-                                row.put("targetDate", "-");
-                            }
+                            Integer targetDay = step.getDays() != null ? startDay + step.getDays() : null;
+                            row.put("targetDate", EpochDays.format(targetDay));
                             row.put("status", "On Track");
                             rows.add(row);
                         }
-                    } catch (Exception ignored) {
-                        rows = List.of();
                     }
+                    block.put("rows", rows);
+                    planningBlocks.add(block);
                 }
-                block.put("rows", rows);
-                planningBlocks.add(block);
+                model.addAttribute("planningBlocks", planningBlocks);
             }
-            model.addAttribute("planningBlocks", planningBlocks);
+            model.addAllAttributes(context.join());
         }
         model.addAttribute("saved", saved != null && saved);
         return "employee-order-entry";
@@ -274,163 +284,125 @@ public class EmployeeController {
     }
 
     @GetMapping("/fms/{folderId}")
-    public String fmsDynamicFolder(@PathVariable("folderId") String folderId, Model model,
+    public String fmsDynamicFolder(@PathVariable("folderId") String folderId,
+            @RequestParam(name = "lazy", required = false) Boolean lazy, Model model,
             Authentication authentication) {
         String username = authentication.getName();
-        model.addAllAttributes(employeeService.getEmployeeContext(username));
-
-        // Check if employee has permission for this folder
-        @SuppressWarnings("unchecked")
-        List<String> permissions = (List<String>) model.getAttribute("permissions");
-        if (permissions == null || !permissions.contains("FMS:" + folderId)) {
-            return "redirect:/employee/dashboard";
-        }
-
-        // Try to load folder-specific template, fallback to generic template
-        Optional<O2DConfig> folderOpt = o2dConfigRepository.findById(folderId);
-        if (folderOpt.isPresent()) {
-            model.addAttribute("currentFolder", folderOpt.get());
-        }
+        // Lazy: render the shell only; the page fetches its sections from fmsSection
+        boolean lazySections = lazy != null ? lazy : this.lazySections;
+
+        // Sections load concurrently; leaving the block early (redirect) cancels the rest
+        try (PageAssembler.Assembly page = pageAssembler.begin()) {
+            var context = page.fork(() -> employeeService.getEmployeeContext(username));
+            var folder = page.fork(() -> o2dConfigRepository.findById(folderId));
+            var employees = page.fork(employeeService::getAllEmployees);
+            var clientProjectMap = lazySections ? null
+                    : page.fork(taskService::getClientProjectMap);
+            var board = lazySections ? null : page.fork(() -> folderBoardCache.board(folderId));
+
+            model.addAllAttributes(context.join());
+            model.addAttribute("lazySections", lazySections);
+            model.addAttribute("folderId", folderId);
+
+            // Check if employee has permission for this folder
+            @SuppressWarnings("unchecked")
+            List<String> permissions = (List<String>) model.getAttribute("permissions");
+            if (permissions == null || !permissions.contains("FMS:" + folderId)) {
+                return "redirect:/employee/dashboard";
+            }
 
-        // Try folder-specific template first (e.g., employee-fms-folder1.html)
-        // If it doesn't exist, Spring will throw an error, so we'll use a generic
-        // template
-
-        // --- TASK MANAGER INTEGRATION ---
-        model.addAttribute("allEmployees", employeeService.getAllEmployees());
-        User user = userRepository.findByUsername(username);
-
-        if (user != null) {
-            // Get dashboard stats
-            Map<String, Object> stats = taskService.getDashboardStats(username);
-            model.addAttribute("dashboardStats", stats);
-
-            // Get client-project map
-            Map<String, List<com.company.flowmanagement.model.Project>> clientProjectMap = taskService
-                    .getClientProjectMap(username);
-            model.addAttribute("clientProjectMap", clientProjectMap);
-
-            // Get user tasks (standard tasks)
-            Map<String, List<Task>> tasks = taskService.getUserTasks(username);
-            model.addAttribute("myTasks", tasks.get("myTasks"));
-            model.addAttribute("completedTasks", tasks.get("completedTasks"));
-            model.addAttribute("delegatedTasks", tasks.get("delegatedTasks"));
-
-            // --- FMS ORDER PROCESS TASKS ---
-            // Fetch all planning entries for this folder (Active Orders)
-            List<PlanningEntry> planningEntries = planningEntryRepository.findByFolderIdOrderByCreatedAtAsc(folderId);
-
-            // Fetch all order entries to get details (Customer, Company etc.)
-            List<OrderEntry> allEntries = orderEntryRepository.findByFolderIdOrderByCreatedAtDesc(folderId);
-
-            // Map OrderID -> Latest OrderEntry
-            Map<String, OrderEntry> latestOrders = new LinkedHashMap<>();
-            if (allEntries != null) {
-                for (OrderEntry entry : allEntries) {
-                    if (entry.getOrderId() != null && !latestOrders.containsKey(entry.getOrderId())) {
-                        latestOrders.put(entry.getOrderId(), entry);
-                    }
-                }
+            Optional<O2DConfig> folderOpt = folder.join();
+            if (folderOpt.isPresent()) {
+                model.addAttribute("currentFolder", folderOpt.get());
             }
 
-            List<Map<String, String>> fmsOverdueTasks = new ArrayList<>();
-            List<Map<String, String>> fmsCompletedTasks = new ArrayList<>();
-            Map<String, List<Map<String, String>>> fmsPendingTasksByStep = new LinkedHashMap<>();
+            // --- TASK MANAGER INTEGRATION ---
+            model.addAttribute("allEmployees", employees.join());
+
+            // The task sections read the request's TaskSnapshot: loaded on this thread
+            if (taskService.findUser(username) != null) {
+                // Tasks before stats: a stats cache miss counts the inbox they loaded
+                Map<String, List<Task>> userTasks = lazySections ? null : taskService.getUserTasks(username);
+                // Cached per user and drawn into the chart on load, so always rendered
+                model.addAttribute("dashboardStats", taskService.getDashboardStats(username));
+                if (lazySections) {
+                    return "employee-fms-folder";
+                }
 
-            try {
-                if (folderOpt.isPresent() && folderOpt.get().getProcessDetails() != null) {
-                    O2DConfig config = folderOpt.get();
-                    int taskSr = 1;
+                model.addAttribute("myTasks", userTasks.get("myTasks"));
+                model.addAttribute("completedTasks", userTasks.get("completedTasks"));
+                model.addAttribute("delegatedTasks", userTasks.get("delegatedTasks"));
+                model.addAttribute("clientProjectMap", clientProjectMap.join());
+
+                // --- FMS ORDER PROCESS TASKS ---
+                // This user's rows of the folder board shared by everyone who opens the folder
+                FolderBoard.UserView fmsTasks = board.join().viewFor(username);
+                List<Map<String, String>> fmsOverdueTasks = fmsTasks.getOverdue();
+                List<Map<String, String>> fmsCompletedTasks = fmsTasks.getCompleted();
+                Map<String, List<Map<String, String>>> fmsPendingTasksByStep = fmsTasks.getPendingByStep();
+                if (folderOpt.isEmpty()) {
+                    fmsOverdueTasks = List.of();
+                    fmsCompletedTasks = List.of();
+                    fmsPendingTasksByStep = Map.of();
+                }
 
-                    System.out.println(
-                            "FMS Folder: Processing " + planningEntries.size() + " orders for user: " + username);
-                    for (PlanningEntry plan : planningEntries) {
-                        String orderId = plan.getOrderId();
-                        String startDateStr = plan.getStartDate();
+                model.addAttribute("fmsOverdueTasks", fmsOverdueTasks);
+                model.addAttribute("fmsCompletedTasks", fmsCompletedTasks);
+                model.addAttribute("fmsPendingTasksByStep", fmsPendingTasksByStep);
+            }
+        }
 
-                        if (orderId == null || startDateStr == null) {
-                            continue;
-                        }
+        return "employee-fms-folder";
+    }
 
-                        LocalDate startDate = null;
-                        try {
-                            startDate = LocalDate.parse(startDateStr);
-                        } catch (Exception e) {
-                            continue;
-                        }
+    /**
+     * One section of the FMS folder page as JSON, fetched by the page in lazy
+     * mode when the section scrolls into view or is expanded. Board sections
+     * (pending, overdue, completed) carry an ETag of the folder version, so a
+     * reload of an unchanged folder is answered with 304.
+     */
+    @GetMapping("/fms/{folderId}/sections/{section}")
+    @ResponseBody
+    public ResponseEntity<?> fmsSection(@PathVariable("folderId") String folderId,
+            @PathVariable("section") String section,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            Authentication authentication) {
+        String username = authentication.getName();
+        if (!employeeService.hasPermission(username, "FMS:" + folderId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
 
-                        OrderEntry orderDetails = latestOrders.get(orderId);
-                        String customerName = findFieldValue(orderDetails != null ? orderDetails.getFields() : null,
-                                "Customer Name", "customer_name");
-                        String companyName = findFieldValue(orderDetails != null ? orderDetails.getFields() : null,
-                                "Company Name", "company_name");
-
-                        for (ProcessStep step : config.getProcessDetails()) {
-                            // Check if step is assigned to current user
-                            if (step.getResponsiblePerson() != null
-                                    && step.getResponsiblePerson().trim().equalsIgnoreCase(username.trim())) {
-
-                                Map<String, String> taskMap = new LinkedHashMap<>();
-                                taskMap.put("sr", String.valueOf(taskSr++));
-                                taskMap.put("orderId", orderId);
-                                taskMap.put("customerName", customerName);
-                                taskMap.put("companyName", companyName);
-                                taskMap.put("responsiblePerson", step.getResponsiblePerson());
-                                String stepName = step.getStepProcess();
-                                taskMap.put("taskName", stepName);
-
-                                // Calculate Target Date
-                                if (step.getDays() != null) {
-                                    taskMap.put("targetDate", startDate.plusDays(step.getDays()).toString());
-                                } else {
-                                    taskMap.put("targetDate", "-");
-                                }
-
-                                // Check status
-                                String status = step.getStatus();
-                                if (status == null || status.isBlank()) {
-                                    status = "Pending";
-                                }
-                                taskMap.put("status", status);
-                                taskMap.put("pdf", "");
-
-                                // Categorize
-                                boolean isOverdue = false;
-                                if (taskMap.get("targetDate") != null && !taskMap.get("targetDate").equals("-")) {
-                                    try {
-                                        LocalDate target = LocalDate.parse(taskMap.get("targetDate"));
-                                        if (target.isBefore(LocalDate.now()) && !"Completed".equalsIgnoreCase(status)) {
-                                            isOverdue = true;
-                                        }
-                                    } catch (Exception e) {
-                                    }
-                                }
-
-                                if ("Completed".equalsIgnoreCase(status)) {
-                                    fmsCompletedTasks.add(taskMap);
-                                } else if (isOverdue) {
-                                    fmsOverdueTasks.add(taskMap);
-                                } else {
-                                    // Add to Grouped Map
-                                    fmsPendingTasksByStep.computeIfAbsent(stepName, k -> new ArrayList<>())
-                                            .add(taskMap);
-                                }
-                            }
-                        }
-                    }
+        switch (section) {
+            case "pending":
+            case "overdue":
+            case "completed": {
+                FolderBoard board = folderBoardCache.board(folderId);
+                FolderBoard.UserView view = board.viewFor(username);
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("section", section);
+                if ("pending".equals(section)) {
+                    body.put("steps", view.getPendingByStep());
+                } else {
+                    body.put("rows", "overdue".equals(section) ? view.getOverdue() : view.getCompleted());
                 }
-            } catch (Exception e) {
-                System.err.println("CRITICAL ERROR in FMS Folder Task Logic: " + e.getMessage());
-                e.printStackTrace();
+                // Spring answers 304 itself when If-None-Match matches
+                return ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .eTag(folderBoardCache.tagOf(board, folderId, username))
+                        .body(body);
             }
-
-            model.addAttribute("fmsOverdueTasks", fmsOverdueTasks);
-            model.addAttribute("fmsCompletedTasks", fmsCompletedTasks);
-            model.addAttribute("fmsPendingTasksByStep", fmsPendingTasksByStep);
-
+            case "myTasks":
+            case "completedTasks":
+            case "delegatedTasks":
+                return ResponseEntity.ok(taskService.getUserTaskPage(username, section, null, null, null,
+                        cursor, SECTION_PAGE_SIZE));
+            case "clientProjects":
+                // The page only lists the clients; projects are picked in the task modal
+                return ResponseEntity.ok(Map.of("section", section,
+                        "clients", taskService.getClientProjectMap().keySet()));
+            default:
+                return ResponseEntity.notFound().build();
         }
-
-        return "employee-fms-folder";
     }
 
     @GetMapping("/order-entry/entry")
@@ -440,7 +412,156 @@ public class EmployeeController {
         if (folderId == null || folderId.isBlank() || orderId == null || orderId.isBlank()) {
             return null;
         }
-        return orderEntryRepository.findFirstByFolderIdAndOrderIdOrderByCreatedAtDesc(folderId.trim(), orderId.trim());
+        LatestOrderEntry latest = orderEntryService.latest(folderId.trim(), orderId.trim());
+        return latest != null ? latest.toOrderEntry() : null;
+    }
+
+    /**
+     * One page of the order entry grid as JSON: the latest version of each
+     * order of the folder, keyset-paginated (see
+     * {@link OrderEntryService#getOrderPage}). The page scrolls through it.
+     */
+    @GetMapping("/order-entry/rows")
+    @ResponseBody
+    public ResponseEntity<?> orderRows(@RequestParam("folderId") String folderId,
+            @RequestParam(name = "orderId", required = false) String orderId,
+            @RequestParam(name = "customer", required = false) String customer,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        O2DConfig config = o2dConfigRepository.findById(folderId.trim()).orElse(null);
+        if (config == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(orderEntryService.getOrderPage(config, orderId, customer, status, sort,
+                    cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Typeahead over the orders of every folder (or of one): the latest
+     * version of each order whose id or field values have words starting
+     * with the words typed, newest first.
+     */
+    @GetMapping("/order-entry/search")
+    @ResponseBody
+    public Map<String, Object> searchOrders(@RequestParam(name = "q", required = false) String query,
+            @RequestParam(name = "folderId", required = false) String folderId,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        List<LatestOrderEntry> matches = orderEntryService.search(query, folderId, limit);
+        Set<String> folderIds = new LinkedHashSet<>();
+        for (LatestOrderEntry match : matches) {
+            folderIds.add(match.getFolderId());
+        }
+        Map<String, String> folderNames = new LinkedHashMap<>();
+        for (O2DConfig folder : o2dConfigRepository.findAllById(folderIds)) {
+            folderNames.put(folder.getId(), folder.getName());
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(matches.size());
+        for (LatestOrderEntry match : matches) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("folderId", match.getFolderId());
+            result.put("folderName", folderNames.getOrDefault(match.getFolderId(), "-"));
+            result.put("orderId", match.getOrderId());
+            result.put("entryId", match.getEntryId());
+            result.put("createdAt", match.getCreatedAt());
+            result.put("customerName", match.getCustomerName());
+            result.put("companyName", match.getCompanyName());
+            result.put("planningStatus", match.getPlanningStatus());
+            results.add(result);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query == null ? "" : query);
+        body.put("results", results);
+        return body;
+    }
+
+    /**
+     * Start a bulk import of order entries from a CSV file into a folder. The
+     * import runs in the background; poll importProgress with the job id.
+     */
+    @PostMapping("/order-entry/import")
+    @ResponseBody
+    public ResponseEntity<?> importOrders(@RequestParam("folderId") String folderId,
+            @RequestParam("file") MultipartFile file, Authentication authentication) {
+        O2DConfig config = o2dConfigRepository.findById(folderId.trim()).orElse(null);
+        if (config == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            OrderImportJob job = orderImportService.start(config, file, authentication.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.snapshot());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Could not store the upload. Please try again."));
+        }
+    }
+
+    @GetMapping("/order-entry/import/{jobId}")
+    @ResponseBody
+    public ResponseEntity<?> importProgress(@PathVariable("jobId") String jobId, Authentication authentication) {
+        OrderImportJob job = orderImportService.job(jobId, authentication.getName());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(job.snapshot());
+    }
+
+    // The latest version of every order of a folder, streamed as CSV (default) or NDJSON
+    @GetMapping("/order-entry/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam("folderId") String folderId,
+            @RequestParam(name = "format", required = false) String format) {
+        O2DConfig config = o2dConfigRepository.findById(folderId.trim()).orElse(null);
+        if (config == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String exportFormat;
+        try {
+            exportFormat = ExportService.format(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return download("orders-" + config.getName(), exportFormat,
+                out -> exportService.writeOrders(config, exportFormat, out));
+    }
+
+    // The planning schedule of a folder with each step's target date, streamed as CSV (default) or NDJSON
+    @GetMapping("/order-entry/planning/export")
+    public ResponseEntity<StreamingResponseBody> exportPlanning(@RequestParam("folderId") String folderId,
+            @RequestParam(name = "format", required = false) String format) {
+        O2DConfig config = o2dConfigRepository.findById(folderId.trim()).orElse(null);
+        if (config == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String exportFormat;
+        try {
+            exportFormat = ExportService.format(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return download("planning-" + config.getName(), exportFormat,
+                out -> exportService.writePlanning(config, exportFormat, out));
+    }
+
+    static ResponseEntity<StreamingResponseBody> download(String name, String format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(ExportService.fileName(name, format), StandardCharsets.UTF_8)
+                        .build().toString())
+                .contentType(MediaType.parseMediaType(ExportService.contentType(format)))
+                .cacheControl(CacheControl.noStore())
+                .body(body);
     }
 
     @PostMapping("/order-entry/entry")
@@ -462,7 +583,8 @@ public class EmployeeController {
         entry.setOrderId(orderId == null ? "" : orderId.trim());
         entry.setFields(fields);
         entry.setCreatedAt(Instant.now());
-        orderEntryRepository.save(entry);
+        orderEntryService.save(entry);
+        fmsStepInstanceService.refreshOrderDetails(entry);
 
         return "redirect:/employee/order-entry?folderId=" + folderId + "&entryId=" + entry.getId() + "&saved=true";
     }
@@ -488,23 +610,16 @@ public class EmployeeController {
             planningEntry.setStartDate(safeStart);
             planningEntry.setCreatedAt(Instant.now());
             planningEntryRepository.save(planningEntry);
+
+            // Materialize this order's step instances from the folder template
+            fmsStepInstanceService.syncOrder(planningEntry);
         }
 
         // 2. UPDATE ORDER STATUS -> PLANNED
         if (!safeOrder.isBlank()) {
-            OrderEntry entry = orderEntryRepository
-                    .findFirstByFolderIdAndOrderIdOrderByCreatedAtDesc(safeFolder, safeOrder);
-
-            if (entry != null) {
-                Map<String, String> fields = entry.getFields();
-                if (fields == null) {
-                    fields = new LinkedHashMap<>();
-                }
-
-                fields.put("planning_status", "Planned");
-                entry.setFields(fields);
-
-                orderEntryRepository.save(entry);
+            LatestOrderEntry latest = orderEntryService.latest(safeFolder, safeOrder);
+            if (latest != null) {
+                orderEntryService.setField(latest.getEntryId(), "planning_status", "Planned");
             }
         }
 
@@ -518,46 +633,9 @@ public class EmployeeController {
         if (entryId == null || entryId.isBlank()) {
             return "redirect:/employee/order-entry?folderId=" + (folderId == null ? "" : folderId.trim());
         }
-        OrderEntry entry = orderEntryRepository.findById(entryId.trim()).orElse(null);
-        if (entry != null) {
-            Map<String, String> fields = entry.getFields();
-            if (fields == null) {
-                fields = new LinkedHashMap<>();
-            }
-            String statusValue = planningStatus == null ? "" : planningStatus.trim();
-            fields.put("planning_status", statusValue);
-            entry.setFields(fields);
-            orderEntryRepository.save(entry);
-        }
+        String statusValue = planningStatus == null ? "" : planningStatus.trim();
+        orderEntryService.setField(entryId.trim(), "planning_status", statusValue);
         String safeFolder = folderId == null ? "" : folderId.trim();
         return "redirect:/employee/order-entry?folderId=" + safeFolder;
     }
-
-    private static String normalizeKey(String value) {
-        if (value == null) {
-            return "";
-        }
-        String normalized = value.trim().toLowerCase();
-        normalized = normalized.replaceAll("[^a-z0-9]+", "_");
-        normalized = normalized.replaceAll("^_+", "").replaceAll("_+$", "");
-        return normalized;
-    }
-
-    private static String findFieldValue(Map<String, String> fields, String label, String defaultKey) {
-        if (fields == null || fields.isEmpty()) {
-            return "-";
-        }
-        if (defaultKey != null && fields.containsKey(defaultKey)) {
-            String val = fields.get(defaultKey);
-            return (val == null || val.isBlank()) ? "-" : val;
-        }
-        String normalizedLabel = normalizeKey(label);
-        for (Map.Entry<String, String> entry : fields.entrySet()) {
-            if (normalizeKey(entry.getKey()).equals(normalizedLabel)) {
-                String val = entry.getValue();
-                return (val == null || val.isBlank()) ? "-" : val;
-            }
-        }
-        return "-";
-    }
 }
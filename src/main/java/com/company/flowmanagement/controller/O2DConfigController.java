@@ -5,6 +5,8 @@ import com.company.flowmanagement.model.ProcessStep;
 import com.company.flowmanagement.model.User;
 import com.company.flowmanagement.repository.O2DConfigRepository;
 import com.company.flowmanagement.repository.UserRepository;
+import com.company.flowmanagement.service.FmsStepInstanceService;
+import com.company.flowmanagement.service.O2DConfigService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -25,12 +27,18 @@ public class O2DConfigController {
     private final O2DConfigRepository repository;
     private final UserRepository userRepository;
     private final com.company.flowmanagement.repository.EmployeeRepository employeeRepository;
+    private final FmsStepInstanceService fmsStepInstanceService;
+    private final O2DConfigService o2dConfigService;
 
     public O2DConfigController(O2DConfigRepository repository, UserRepository userRepository,
-            com.company.flowmanagement.repository.EmployeeRepository employeeRepository) {
+            com.company.flowmanagement.repository.EmployeeRepository employeeRepository,
+            FmsStepInstanceService fmsStepInstanceService,
+            O2DConfigService o2dConfigService) {
         this.repository = repository;
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
+        this.fmsStepInstanceService = fmsStepInstanceService;
+        this.o2dConfigService = o2dConfigService;
     }
 
     @GetMapping("/fms-list")
@@ -221,14 +229,19 @@ public class O2DConfigController {
             });
         }
 
-        O2DConfig config = repository.findById(folderId).orElse(null);
+        ArrayList<String> orderDetails = cleanedOrderDetails;
+        // Compare-and-swap on the folder version, retried if someone else saved it meanwhile
+        O2DConfig config = o2dConfigService.update(folderId, folder -> {
+            folder.setOrderDetails(orderDetails);
+            folder.setProcessDetails(cleanedSteps);
+            folder.setConfigured(true);
+        });
         if (config == null) {
             return "redirect:/admin/fms-list";
         }
-        config.setOrderDetails(cleanedOrderDetails);
-        config.setProcessDetails(cleanedSteps);
-        config.setConfigured(true);
-        repository.save(config);
+
+        // Steps may have been added, removed or reassigned
+        fmsStepInstanceService.syncFolder(folderId);
 
         session.removeAttribute("orderDetailsDraft");
         session.removeAttribute("folderIdDraft");
@@ -250,6 +263,7 @@ public class O2DConfigController {
 
         if (id != null && !id.isBlank()) {
             repository.deleteById(id);
+            fmsStepInstanceService.deleteFolder(id);
         }
         return "redirect:/admin/fms-list";
     }
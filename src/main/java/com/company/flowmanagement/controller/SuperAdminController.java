@@ -4,6 +4,10 @@ import com.company.flowmanagement.model.User;
 import com.company.flowmanagement.repository.O2DConfigRepository;
 import com.company.flowmanagement.repository.UserRepository;
 import com.company.flowmanagement.controller.EmployeeController;
+import com.company.flowmanagement.service.DashboardCache;
+import com.company.flowmanagement.service.FmsStepInstanceService;
+import com.company.flowmanagement.service.O2DConfigService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Controller;
@@ -36,17 +40,26 @@ public class SuperAdminController {
     private final PasswordEncoder passwordEncoder;
     private final com.company.flowmanagement.repository.EmployeeRepository employeeRepository;
     private final EmployeeController employeeController;
+    private final FmsStepInstanceService fmsStepInstanceService;
+    private final DashboardCache dashboardCache;
+    private final O2DConfigService o2dConfigService;
 
     public SuperAdminController(UserRepository userRepository,
             O2DConfigRepository o2dConfigRepository,
             PasswordEncoder passwordEncoder,
             com.company.flowmanagement.repository.EmployeeRepository employeeRepository,
-            EmployeeController employeeController) {
+            EmployeeController employeeController,
+            FmsStepInstanceService fmsStepInstanceService,
+            DashboardCache dashboardCache,
+            O2DConfigService o2dConfigService) {
         this.userRepository = userRepository;
         this.o2dConfigRepository = o2dConfigRepository;
         this.passwordEncoder = passwordEncoder;
         this.employeeRepository = employeeRepository;
         this.employeeController = employeeController;
+        this.fmsStepInstanceService = fmsStepInstanceService;
+        this.dashboardCache = dashboardCache;
+        this.o2dConfigService = o2dConfigService;
     }
 
     @GetMapping("/dashboard")
@@ -235,6 +248,7 @@ public class SuperAdminController {
         model.addAttribute("orderEntryPlanningPath", basePath + "/planning");
         model.addAttribute("orderEntryPlanningStatusPath", basePath + "/planning-status");
         model.addAttribute("orderEntryFetchEntryPath", basePath + "/entry");
+        model.addAttribute("orderEntryRowsPath", basePath + "/rows");
         return "employee-order-entry";
     }
 
@@ -252,6 +266,25 @@ public class SuperAdminController {
         return employeeController.fetchEntry(folderId, orderId);
     }
 
+    @GetMapping("/company-detail/{adminId}/folder/{folderId}/employee/{employeeId}/order-entry/rows")
+    @ResponseBody
+    public ResponseEntity<?> fetchEmployeeOrderRowsFromSuperAdmin(
+            @PathVariable("adminId") String adminId,
+            @PathVariable("folderId") String folderId,
+            @PathVariable("employeeId") String employeeId,
+            @RequestParam(name = "orderId", required = false) String orderId,
+            @RequestParam(name = "customer", required = false) String customer,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "100") int size) {
+        com.company.flowmanagement.model.Employee employee = employeeRepository.findById(employeeId).orElse(null);
+        if (employee == null || employee.getAdminId() == null || !adminId.equals(employee.getAdminId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return employeeController.orderRows(folderId, orderId, customer, status, sort, cursor, size);
+    }
+
     @PostMapping("/company-detail/{adminId}/folder/{folderId}/employee/{employeeId}/order-entry/entry")
     public String createEmployeeOrderEntryFromSuperAdmin(@PathVariable("adminId") String adminId,
             @PathVariable("folderId") String folderId,
@@ -333,11 +366,6 @@ public class SuperAdminController {
             @RequestParam(name = "targetType", required = false) java.util.List<String> targetType,
             @RequestParam(name = "days", required = false) java.util.List<String> days) {
 
-        com.company.flowmanagement.model.O2DConfig config = o2dConfigRepository.findById(folderId).orElse(null);
-        if (config == null) {
-            return "redirect:/superadmin/company-detail/" + adminId;
-        }
-
         // Clean order details
         java.util.ArrayList<String> cleanedOrder = new java.util.ArrayList<>();
         if (orderDetails != null) {
@@ -347,7 +375,6 @@ public class SuperAdminController {
                 }
             }
         }
-        config.setOrderDetails(cleanedOrder);
 
         // Clean process steps
         java.util.ArrayList<com.company.flowmanagement.model.ProcessStep> cleanedSteps = new java.util.ArrayList<>();
@@ -377,9 +404,17 @@ public class SuperAdminController {
                 cleanedSteps.add(ps);
             }
         }
-        config.setProcessDetails(cleanedSteps);
-        config.setConfigured(!cleanedOrder.isEmpty() || !cleanedSteps.isEmpty());
-        o2dConfigRepository.save(config);
+
+        // Compare-and-swap on the folder version, retried if someone else saved it meanwhile
+        com.company.flowmanagement.model.O2DConfig config = o2dConfigService.update(folderId, folder -> {
+            folder.setOrderDetails(cleanedOrder);
+            folder.setProcessDetails(cleanedSteps);
+            folder.setConfigured(!cleanedOrder.isEmpty() || !cleanedSteps.isEmpty());
+        });
+        if (config == null) {
+            return "redirect:/superadmin/company-detail/" + adminId;
+        }
+        fmsStepInstanceService.syncFolder(folderId);
 
         return "redirect:/superadmin/company-detail/" + adminId + "/folder/" + folderId;
     }
@@ -529,6 +564,13 @@ public class SuperAdminController {
         return dashboard(model);
     }
 
+    // Hit / miss / eviction counters of the employee dashboard cache
+    @GetMapping("/api/dashboard-cache")
+    @ResponseBody
+    public Map<String, Object> getDashboardCacheStats() {
+        return dashboardCache.statistics();
+    }
+
     @GetMapping("/api/folder-access")
     @ResponseBody
     public List<Map<String, Object>> getFolderAccess(@RequestParam("folderId") String folderId) {
@@ -3,7 +3,10 @@ package com.company.flowmanagement.controller;
 import com.company.flowmanagement.model.Task;
 import com.company.flowmanagement.model.User;
 import com.company.flowmanagement.repository.UserRepository;
+import com.company.flowmanagement.service.ExportService;
+import com.company.flowmanagement.service.PageAssembler;
 import com.company.flowmanagement.service.TaskService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -11,6 +14,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -30,39 +34,57 @@ public class TaskController {
     private final TaskService taskService;
     private final UserRepository userRepository;
     private final com.company.flowmanagement.service.EmployeeService employeeService;
+    private final PageAssembler pageAssembler;
+    private final ExportService exportService;
+    private final boolean lazySections;
 
     public TaskController(TaskService taskService, UserRepository userRepository,
-            com.company.flowmanagement.service.EmployeeService employeeService) {
+            com.company.flowmanagement.service.EmployeeService employeeService, PageAssembler pageAssembler,
+            ExportService exportService, @Value("${page.lazy-sections:false}") boolean lazySections) {
         this.taskService = taskService;
         this.userRepository = userRepository;
         this.employeeService = employeeService;
+        this.pageAssembler = pageAssembler;
+        this.exportService = exportService;
+        this.lazySections = lazySections;
     }
 
     @GetMapping
-    public String taskManager(Model model, Authentication authentication) {
+    public String taskManager(@RequestParam(name = "lazy", required = false) Boolean lazy, Model model,
+            Authentication authentication) {
         String username = authentication.getName();
+        // Lazy: render the shell only; the task tables fetch /api/tasks/page themselves
+        boolean lazySections = lazy != null ? lazy : this.lazySections;
+
+        // Independent sections load concurrently; the task sections read the
+        // request's TaskSnapshot, so they load here on the request thread meanwhile
+        try (PageAssembler.Assembly page = pageAssembler.begin()) {
+            var context = page.fork(() -> employeeService.getEmployeeContext(username));
+            var employees = page.fork(employeeService::getAllEmployees);
+            var clientProjectMap = lazySections ? null
+                    : page.fork(taskService::getClientProjectMap);
+
+            User user = taskService.findUser(username);
+            // Tasks before stats: a stats cache miss counts the inbox they loaded
+            Map<String, List<Task>> userTasks = user != null && !lazySections
+                    ? taskService.getUserTasks(username)
+                    : null;
+            Map<String, Object> stats = user != null ? taskService.getDashboardStats(username) : null;
+
+            // Partial employee context (for name, permissions, sidebar)
+            model.addAllAttributes(context.join());
+            model.addAttribute("allEmployees", employees.join());
+            model.addAttribute("lazySections", lazySections);
 
-        // Load partial employee context first (for name, permissions, sidebar)
-        model.addAllAttributes(employeeService.getEmployeeContext(username));
-        model.addAttribute("allEmployees", employeeService.getAllEmployees());
-
-        User user = userRepository.findByUsername(username);
-
-        if (user != null) {
-            // Get dashboard stats
-            Map<String, Object> stats = taskService.getDashboardStats(username);
-            model.addAttribute("dashboardStats", stats);
-
-            // Get client-project map
-            Map<String, List<com.company.flowmanagement.model.Project>> clientProjectMap = taskService
-                    .getClientProjectMap(username);
-            model.addAttribute("clientProjectMap", clientProjectMap);
-
-            // Get user tasks
-            Map<String, List<Task>> tasks = taskService.getUserTasks(username);
-            model.addAttribute("myTasks", tasks.get("myTasks"));
-            model.addAttribute("completedTasks", tasks.get("completedTasks"));
-            model.addAttribute("delegatedTasks", tasks.get("delegatedTasks"));
+            if (user != null) {
+                model.addAttribute("dashboardStats", stats);
+                if (!lazySections) {
+                    model.addAttribute("myTasks", userTasks.get("myTasks"));
+                    model.addAttribute("completedTasks", userTasks.get("completedTasks"));
+                    model.addAttribute("delegatedTasks", userTasks.get("delegatedTasks"));
+                    model.addAttribute("clientProjectMap", clientProjectMap.join());
+                }
+            }
         }
 
         return "employee-task-manager";
@@ -86,6 +108,58 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    // Keyset-paginated variant of /api/tasks: one bucket, newest first
+    @GetMapping("/api/tasks/page")
+    @ResponseBody
+    public ResponseEntity<?> getTaskPage(@RequestParam(defaultValue = "myTasks") String bucket,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String targetFrom,
+            @RequestParam(required = false) String targetTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
+        try {
+            return ResponseEntity.ok(taskService.getUserTaskPage(authentication.getName(), bucket, status,
+                    targetFrom, targetTo, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // The user's whole task list (assigned, then delegated), streamed as CSV (default) or NDJSON
+    @GetMapping("/api/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(name = "format", required = false) String format, Authentication authentication) {
+        String exportFormat;
+        try {
+            exportFormat = ExportService.format(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        String username = authentication.getName();
+        return EmployeeController.download("tasks-" + username, exportFormat,
+                out -> exportService.writeUserTasks(username, exportFormat, out));
+    }
+
+    // The user's tasks (assigned or delegated) of one client organization, streamed as CSV (default) or NDJSON
+    @GetMapping("/api/tasks/export/client")
+    public ResponseEntity<StreamingResponseBody> exportClientTasks(@RequestParam("clientOrgId") String clientOrgId,
+            @RequestParam(name = "format", required = false) String format, Authentication authentication) {
+        String exportFormat;
+        try {
+            exportFormat = ExportService.format(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        User user = userRepository.findByUsername(authentication.getName());
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        String client = clientOrgId.trim();
+        return EmployeeController.download("tasks-client-" + client, exportFormat,
+                out -> exportService.writeClientTasks(client, user.getId(), exportFormat, out));
+    }
+
     @PostMapping("/api/tasks")
     @ResponseBody
     public ResponseEntity<?> createTask(@ModelAttribute Task task,
@@ -131,24 +205,14 @@ public class TaskController {
             Authentication authentication) {
         try {
             String username = authentication.getName();
-            User user = userRepository.findByUsername(username);
+            User user = taskService.findUser(username);
 
             if (user != null) {
-                tasks.forEach(task -> {
-                    task.setAssignedById(user.getId());
-                    task.setAssignedByName(username);
-
-                    // Resolve assignedToId from assignedToName
-                    if (task.getAssignedToName() != null) {
-                        User assignedUser = userRepository.findByUsername(task.getAssignedToName());
-                        if (assignedUser != null) {
-                            task.setAssignedToId(assignedUser.getId());
-                        }
-                    }
-                });
-
-                List<Task> savedTasks = taskService.createBulkTasks(tasks);
-                return ResponseEntity.status(HttpStatus.CREATED).body(savedTasks);
+                Map<String, Object> result = taskService.createBulkTasks(tasks, user);
+                // 207 when only part of the batch was created
+                HttpStatus status = ((Integer) result.get("failed")) == 0 ? HttpStatus.CREATED
+                        : HttpStatus.MULTI_STATUS;
+                return ResponseEntity.status(status).body(result);
             }
 
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -194,15 +258,8 @@ public class TaskController {
             Authentication authentication) {
         try {
             String completionDate = LocalDate.now().toString();
-
-            List<Task> updatedTasks = taskIds.stream()
-                    .map(taskId -> taskService.updateTaskStatus(taskId, "Completed",
-                            "Completed via bulk action", completionDate, null))
-                    .filter(task -> task != null)
-                    .toList();
-
-            return ResponseEntity.ok(Map.of("updated", updatedTasks.size()));
-
+            return ResponseEntity.ok(taskService.updateTaskStatusAll(taskIds, "Completed",
+                    "Completed via bulk action", completionDate));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", e.getMessage()));
@@ -212,8 +269,7 @@ public class TaskController {
     @GetMapping("/api/projects")
     @ResponseBody
     public ResponseEntity<?> getProjects(Authentication authentication) {
-        String username = authentication.getName();
-        Map<String, List<com.company.flowmanagement.model.Project>> map = taskService.getClientProjectMap(username);
+        Map<String, List<com.company.flowmanagement.model.Project>> map = taskService.getClientProjectMap();
         List<com.company.flowmanagement.model.Project> projects = map.values().stream().flatMap(List::stream)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(projects);
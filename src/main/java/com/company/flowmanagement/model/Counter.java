@@ -0,0 +1,33 @@
+package com.company.flowmanagement.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Named, monotonically increasing sequence. {@code seq} is the highest value
+ * handed out so far (blocks are reserved by incrementing it atomically).
+ */
+@Document(collection = "counters")
+public class Counter {
+
+    @Id
+    private String id; // sequence name, e.g. "task"
+
+    private long seq;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+}
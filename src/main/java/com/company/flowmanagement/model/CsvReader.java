@@ -0,0 +1,138 @@
+package com.company.flowmanagement.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: one record per {@link #next()} call, read
+ * straight from the underlying reader, so a file of any size is held one
+ * record at a time. Fields may be quoted ("a, b"), with "" for a quote and
+ * line breaks inside quotes; records end with LF or CRLF. A leading
+ * byte-order mark is skipped.
+ */
+public final class CsvReader implements Closeable {
+
+    // A single field longer than this is not an order entry value
+    static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final Reader in;
+    private final char separator;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private boolean first = true;
+
+    public CsvReader(Reader in) {
+        this(in, ',');
+    }
+
+    public CsvReader(Reader in, char separator) {
+        this.in = in;
+        this.separator = separator;
+    }
+
+    // Line the next record starts on (1-based; a quoted line break counts)
+    public long line() {
+        return line;
+    }
+
+    /**
+     * The next record, or null at the end of the input. A blank line is an
+     * empty list.
+     *
+     * @throws IOException on a read error, an unterminated quote or an
+     *                     oversized field
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (first) {
+            first = false;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        if (c == '\n' || c == '\r') {
+            endOfLine(c);
+            return record;
+        }
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting before line " + line);
+                }
+                if (c == '"') {
+                    int nextChar = read();
+                    if (nextChar == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = nextChar;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == separator) {
+                record.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                record.add(field.toString());
+                if (c != -1) {
+                    endOfLine(c);
+                }
+                return record;
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else {
+                field.append((char) c);
+            }
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new IOException("Field longer than " + MAX_FIELD_LENGTH + " characters on line " + line);
+            }
+            c = read();
+        }
+    }
+
+    private void endOfLine(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            int nextChar = read();
+            if (nextChar != '\n' && nextChar != -1) {
+                position--; // a lone CR ends the line; keep what follows
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.company.flowmanagement.model;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * RFC 4180 writer, the counterpart of {@link CsvReader}: one record per
+ * {@link #write(List)} call, straight to the underlying writer. Fields with a
+ * separator, quote or line break are quoted (a quote doubled); records end
+ * with CRLF. Null fields are written empty.
+ */
+public final class CsvWriter implements Closeable, Flushable {
+
+    private final Writer out;
+    private final char separator;
+
+    public CsvWriter(Writer out) {
+        this(out, ',');
+    }
+
+    public CsvWriter(Writer out, char separator) {
+        this.out = out;
+        this.separator = separator;
+    }
+
+    public void write(List<String> record) throws IOException {
+        for (int i = 0; i < record.size(); i++) {
+            if (i > 0) {
+                out.write(separator);
+            }
+            field(record.get(i));
+        }
+        out.write("\r\n");
+    }
+
+    private void field(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == separator || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
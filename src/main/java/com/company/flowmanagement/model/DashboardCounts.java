@@ -0,0 +1,108 @@
+package com.company.flowmanagement.model;
+
+/**
+ * Status counters of one user's assigned tasks, computed by the inbox
+ * aggregation pipeline. Only this single row leaves the database.
+ */
+public class DashboardCounts {
+
+    private long total;
+    private long onTime; // "On Time" + "Completed" (broad def for now)
+    private long onTimeStatus;
+    private long inProgress;
+    private long delayed;
+    private long overdue;
+    private long pending;
+    private double otcScore; // percentage, 0 when there are no tasks
+
+    /**
+     * Same counters as the aggregation pipeline, for statuses that are
+     * already in memory.
+     */
+    public static DashboardCounts tally(Iterable<String> statuses) {
+        DashboardCounts counts = new DashboardCounts();
+        for (String raw : statuses) {
+            String status = raw != null ? raw : "PENDING";
+            counts.total++;
+            switch (status) {
+                case "On Time" -> {
+                    counts.onTime++;
+                    counts.onTimeStatus++;
+                }
+                case "Completed" -> counts.onTime++;
+                case "In Progress" -> counts.inProgress++;
+                case "Delayed" -> counts.delayed++;
+                case "Overdue" -> counts.overdue++;
+                case "PENDING" -> counts.pending++;
+                default -> {
+                }
+            }
+        }
+        counts.otcScore = counts.total > 0 ? (double) counts.onTime / counts.total * 100 : 0;
+        return counts;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getOnTime() {
+        return onTime;
+    }
+
+    public void setOnTime(long onTime) {
+        this.onTime = onTime;
+    }
+
+    public long getOnTimeStatus() {
+        return onTimeStatus;
+    }
+
+    public void setOnTimeStatus(long onTimeStatus) {
+        this.onTimeStatus = onTimeStatus;
+    }
+
+    public long getInProgress() {
+        return inProgress;
+    }
+
+    public void setInProgress(long inProgress) {
+        this.inProgress = inProgress;
+    }
+
+    public long getDelayed() {
+        return delayed;
+    }
+
+    public void setDelayed(long delayed) {
+        this.delayed = delayed;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    public void setPending(long pending) {
+        this.pending = pending;
+    }
+
+    public double getOtcScore() {
+        return otcScore;
+    }
+
+    public void setOtcScore(double otcScore) {
+        this.otcScore = otcScore;
+    }
+}
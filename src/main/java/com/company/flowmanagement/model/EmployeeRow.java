@@ -0,0 +1,60 @@
+package com.company.flowmanagement.model;
+
+import java.util.List;
+
+/**
+ * Row of the employee manager table. Only the constructor arguments are read
+ * from MongoDB; the password is the display password attached afterwards.
+ */
+public class EmployeeRow {
+
+    private final String id;
+    private final String name;
+    private final String email;
+    private final String department;
+    private final String status;
+    private final List<String> permissions;
+    private String password;
+
+    public EmployeeRow(String id, String name, String email, String department, String status,
+            List<String> permissions) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.department = department;
+        this.status = status;
+        this.permissions = permissions != null ? permissions : List.of();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
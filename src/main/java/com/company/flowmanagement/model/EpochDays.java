@@ -0,0 +1,38 @@
+package com.company.flowmanagement.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * ISO dates (yyyy-MM-dd, as entered in forms) as days since 1970-01-01.
+ * Stored next to the string date so due-date queries compare integers on an
+ * index instead of parsing strings, and so schedules are computed as
+ * {@code startDay + days}; {@link #format} turns a day back into a date
+ * string where it is shown.
+ */
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    // Null when the value is missing, "-" or not an ISO date
+    public static Integer of(String isoDate) {
+        if (isoDate == null || isoDate.isBlank() || "-".equals(isoDate.trim())) {
+            return null;
+        }
+        try {
+            return (int) LocalDate.parse(isoDate.trim()).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // ISO date of a day, "-" for null (the placeholder the views show)
+    public static String format(Integer day) {
+        return day == null ? "-" : LocalDate.ofEpochDay(day).toString();
+    }
+
+    public static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+}
@@ -0,0 +1,246 @@
+package com.company.flowmanagement.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One concrete FMS step for one planned order: (folder, order, step index).
+ * Carries its own status so completing a step on one order no longer touches
+ * the shared {@link ProcessStep} template on the folder.
+ */
+@Document(collection = "fms_step_instances")
+@CompoundIndexes({
+        @CompoundIndex(name = "folder_order_step", def = "{'folderId': 1, 'orderId': 1, 'stepIndex': 1}", unique = true),
+        // Overdue sweep: open statuses whose due day has passed
+        @CompoundIndex(name = "status_due", def = "{'status': 1, 'dueDay': 1}")
+})
+public class FmsStepInstance {
+
+    @Id
+    private String id; // <folderId>_<orderId>_<stepIndex>
+
+    private String folderId;
+    private String folderName;
+    private String orderId;
+    private int stepIndex;
+
+    // Copied from the folder's ProcessStep template
+    private String stepProcess;
+    private String responsiblePerson;
+    private String assigneeKey; // trimmed, lower-cased responsiblePerson
+    private String targetType;
+    private Integer days;
+
+    // Copied from the order's planning / latest order entry
+    private String startDate;
+    private Integer startDay; // startDate as epoch day
+    private String targetDate; // yyyy-MM-dd or "-"
+    private Integer dueDay; // targetDate as epoch day, null for "-"
+    private String customerName;
+    private String companyName;
+
+    // Per-order progress
+    private String status = "PENDING";
+    private String remarks;
+    private String completionDate;
+    private String completionFile;
+
+    private Instant plannedAt;
+    private Instant updatedAt;
+
+    public static String buildId(String folderId, String orderId, int stepIndex) {
+        return folderId + "_" + orderId + "_" + stepIndex;
+    }
+
+    public static String assigneeKeyOf(String person) {
+        return person == null ? null : person.trim().toLowerCase();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFolderId() {
+        return folderId;
+    }
+
+    public void setFolderId(String folderId) {
+        this.folderId = folderId;
+    }
+
+    public String getFolderName() {
+        return folderName;
+    }
+
+    public void setFolderName(String folderName) {
+        this.folderName = folderName;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getStepIndex() {
+        return stepIndex;
+    }
+
+    public void setStepIndex(int stepIndex) {
+        this.stepIndex = stepIndex;
+    }
+
+    public String getStepProcess() {
+        return stepProcess;
+    }
+
+    public void setStepProcess(String stepProcess) {
+        this.stepProcess = stepProcess;
+    }
+
+    public String getResponsiblePerson() {
+        return responsiblePerson;
+    }
+
+    public void setResponsiblePerson(String responsiblePerson) {
+        this.responsiblePerson = responsiblePerson;
+        this.assigneeKey = assigneeKeyOf(responsiblePerson);
+    }
+
+    public String getAssigneeKey() {
+        return assigneeKey;
+    }
+
+    public void setAssigneeKey(String assigneeKey) {
+        this.assigneeKey = assigneeKey;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public void setTargetType(String targetType) {
+        this.targetType = targetType;
+    }
+
+    public Integer getDays() {
+        return days;
+    }
+
+    public void setDays(Integer days) {
+        this.days = days;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public Integer getStartDay() {
+        return startDay;
+    }
+
+    public void setStartDay(Integer startDay) {
+        this.startDay = startDay;
+    }
+
+    public String getTargetDate() {
+        return targetDate;
+    }
+
+    public void setTargetDate(String targetDate) {
+        this.targetDate = targetDate;
+        this.dueDay = EpochDays.of(targetDate);
+    }
+
+    // Same as setTargetDate, from the epoch day (null: no target date)
+    public void setTargetDay(Integer day) {
+        this.dueDay = day;
+        this.targetDate = EpochDays.format(day);
+    }
+
+    public Integer getDueDay() {
+        return dueDay;
+    }
+
+    public void setDueDay(Integer dueDay) {
+        this.dueDay = dueDay;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public void setCompanyName(String companyName) {
+        this.companyName = companyName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    public String getCompletionDate() {
+        return completionDate;
+    }
+
+    public void setCompletionDate(String completionDate) {
+        this.completionDate = completionDate;
+    }
+
+    public String getCompletionFile() {
+        return completionFile;
+    }
+
+    public void setCompletionFile(String completionFile) {
+        this.completionFile = completionFile;
+    }
+
+    public Instant getPlannedAt() {
+        return plannedAt;
+    }
+
+    public void setPlannedAt(Instant plannedAt) {
+        this.plannedAt = plannedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.company.flowmanagement.model;
+
+import java.time.Instant;
+
+/**
+ * {@link InboxRow} plus the progress and bookkeeping fields, as the paged
+ * task API returns them. A closed projection of {@link InboxItem} too, so
+ * one mapper turns either kind of row into a task row.
+ */
+public interface InboxDetailRow extends InboxRow {
+
+    String getAssignedByName();
+
+    String getCompletionDate();
+
+    String getRemarks();
+
+    String getCompletionFile();
+
+    Instant getUpdatedAt();
+}
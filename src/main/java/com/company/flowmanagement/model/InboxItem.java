@@ -0,0 +1,218 @@
+package com.company.flowmanagement.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Read-model row of a user's task inbox. Manual tasks and FMS step instances
+ * are projected here on every write so the task pages read one ready-made,
+ * per-user list instead of merging both sources on each request.
+ */
+@Document(collection = "inbox_items")
+@CompoundIndexes({
+        // Whole inbox reads and keyset pages (createdAt, _id) of one bucket
+        @CompoundIndex(name = "owner_kind_created_id", def = "{'ownerKey': 1, 'kind': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "source_ref", def = "{'source': 1, 'sourceId': 1}")
+})
+public class InboxItem {
+
+    public static final String KIND_ASSIGNED = "ASSIGNED"; // tasks the owner has to do
+    public static final String KIND_DELEGATED = "DELEGATED"; // tasks the owner gave to someone else
+
+    public static final String SOURCE_TASK = "TASK";
+    public static final String SOURCE_FMS = "FMS";
+
+    // Task list buckets, named like the keys of TaskService.getUserTasks
+    public static final String BUCKET_ACTIVE = "myTasks";
+    public static final String BUCKET_COMPLETED = "completedTasks";
+    public static final String BUCKET_DELEGATED = "delegatedTasks";
+
+    @Id
+    private String id; // <ownerKey>:<kind>:<source>:<sourceId>
+
+    private String ownerKey; // trimmed, lower-cased username
+    private String kind;
+    private String source;
+    private String sourceId; // Task document id or FmsStepInstance id
+
+    // Task row as shown on the task pages
+    private String taskId;
+    private String title;
+    private String projectName;
+    private String clientName;
+    private String assignedToName;
+    private String assignedByName;
+    private String targetDate;
+    private String completionDate;
+    private String status;
+    private String remarks;
+    private String assignedFile;
+    private String completionFile;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public static String buildId(String ownerKey, String kind, String source, String sourceId) {
+        return ownerKey + ":" + kind + ":" + source + ":" + sourceId;
+    }
+
+    public static String ownerKeyOf(String username) {
+        return username == null ? null : username.trim().toLowerCase();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwnerKey() {
+        return ownerKey;
+    }
+
+    public void setOwnerKey(String ownerKey) {
+        this.ownerKey = ownerKey;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(String sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public void setProjectName(String projectName) {
+        this.projectName = projectName;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public void setClientName(String clientName) {
+        this.clientName = clientName;
+    }
+
+    public String getAssignedToName() {
+        return assignedToName;
+    }
+
+    public void setAssignedToName(String assignedToName) {
+        this.assignedToName = assignedToName;
+    }
+
+    public String getAssignedByName() {
+        return assignedByName;
+    }
+
+    public void setAssignedByName(String assignedByName) {
+        this.assignedByName = assignedByName;
+    }
+
+    public String getTargetDate() {
+        return targetDate;
+    }
+
+    public void setTargetDate(String targetDate) {
+        this.targetDate = targetDate;
+    }
+
+    public String getCompletionDate() {
+        return completionDate;
+    }
+
+    public void setCompletionDate(String completionDate) {
+        this.completionDate = completionDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    public String getAssignedFile() {
+        return assignedFile;
+    }
+
+    public void setAssignedFile(String assignedFile) {
+        this.assignedFile = assignedFile;
+    }
+
+    public String getCompletionFile() {
+        return completionFile;
+    }
+
+    public void setCompletionFile(String completionFile) {
+        this.completionFile = completionFile;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
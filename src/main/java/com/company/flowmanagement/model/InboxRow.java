@@ -0,0 +1,37 @@
+package com.company.flowmanagement.model;
+
+import java.time.Instant;
+
+/**
+ * Closed projection of {@link InboxItem} with only what the task tables show
+ * and what is needed to sort rows into buckets; remarks, completion data and
+ * bookkeeping fields are not fetched.
+ */
+public interface InboxRow {
+
+    String getId();
+
+    String getKind();
+
+    String getSource();
+
+    String getSourceId();
+
+    String getTaskId();
+
+    String getTitle();
+
+    String getProjectName();
+
+    String getClientName();
+
+    String getAssignedToName();
+
+    String getTargetDate();
+
+    String getStatus();
+
+    String getAssignedFile();
+
+    Instant getCreatedAt();
+}
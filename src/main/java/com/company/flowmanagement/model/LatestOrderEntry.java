@@ -0,0 +1,176 @@
+package com.company.flowmanagement.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest version of one order: {@link OrderEntry} documents are appended per
+ * save, this collection keeps a copy of the newest one per (folderId,
+ * orderId), with the customer and company names already resolved. Advanced
+ * atomically on every order entry write (see OrderEntryService), so a
+ * reader needs one lookup by id instead of a sorted query per order.
+ *
+ * <p>Also the source of the order entry grid, paged newest first (or by
+ * order id) within a folder, optionally narrowed to one planning status,
+ * and of order search across folders ({@code searchTerms}, newest first).
+ */
+@Document(collection = "latest_order_entries")
+@CompoundIndexes({
+        // Grid pages: folder, newest first, _id as the keyset tie-break
+        @CompoundIndex(name = "folder_created_id", def = "{'folderId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "folder_status_created_id",
+                def = "{'folderId': 1, 'planningStatus': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "folder_order", def = "{'folderId': 1, 'orderId': 1}"),
+        // Typeahead: one key per search term, newest first within a term
+        @CompoundIndex(name = "terms_created", def = "{'searchTerms': 1, 'createdAt': -1}")
+})
+public class LatestOrderEntry {
+
+    public static final String STATUS_PENDING = OrderEntry.STATUS_PENDING;
+
+    @Id
+    private String id; // <folderId>:<orderId>
+
+    private String folderId;
+    private String orderId;
+    private String entryId; // id of the OrderEntry version copied here
+    private Instant createdAt; // of that version
+    private Map<String, String> fields = new LinkedHashMap<>();
+
+    private String customerName;
+    private String companyName;
+    private String planningStatus; // "Pending" when the order has none yet
+    private List<String> searchTerms = new ArrayList<>(); // see OrderSearchTerms
+    private Instant updatedAt;
+
+    public static String buildId(String folderId, String orderId) {
+        return folderId + ":" + orderId;
+    }
+
+    // Row of a canonical version (see OrderEntry#canonicalize): its promoted properties are copied as they are
+    public static LatestOrderEntry of(OrderEntry entry) {
+        LatestOrderEntry latest = new LatestOrderEntry();
+        latest.setId(buildId(entry.getFolderId(), entry.getOrderId()));
+        latest.setFolderId(entry.getFolderId());
+        latest.setOrderId(entry.getOrderId());
+        latest.setEntryId(entry.getId());
+        latest.setCreatedAt(entry.getCreatedAt());
+        latest.setFields(entry.getFields() != null ? entry.getFields() : new LinkedHashMap<>());
+        latest.setCustomerName(entry.getCustomerName());
+        latest.setCompanyName(entry.getCompanyName());
+        latest.setPlanningStatus(entry.getPlanningStatus());
+        latest.setSearchTerms(OrderSearchTerms.of(entry.getOrderId(), entry.getFields()));
+        latest.setUpdatedAt(Instant.now());
+        return latest;
+    }
+
+    // The version this row was copied from, as the order entry endpoints return it
+    public OrderEntry toOrderEntry() {
+        OrderEntry entry = new OrderEntry();
+        entry.setId(entryId);
+        entry.setFolderId(folderId);
+        entry.setOrderId(orderId);
+        entry.setCreatedAt(createdAt);
+        entry.setFields(fields);
+        entry.setCustomerName(customerName);
+        entry.setCompanyName(companyName);
+        entry.setPlanningStatus(planningStatus);
+        return entry;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFolderId() {
+        return folderId;
+    }
+
+    public void setFolderId(String folderId) {
+        this.folderId = folderId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(String entryId) {
+        this.entryId = entryId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    public void setFields(Map<String, String> fields) {
+        this.fields = fields;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public void setCompanyName(String companyName) {
+        this.companyName = companyName;
+    }
+
+    public String getPlanningStatus() {
+        return planningStatus;
+    }
+
+    public void setPlanningStatus(String planningStatus) {
+        this.planningStatus = planningStatus;
+    }
+
+    public List<String> getSearchTerms() {
+        return searchTerms;
+    }
+
+    public void setSearchTerms(List<String> searchTerms) {
+        this.searchTerms = searchTerms;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
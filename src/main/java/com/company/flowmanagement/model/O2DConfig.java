@@ -1,6 +1,7 @@
 package com.company.flowmanagement.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -12,6 +13,11 @@ public class O2DConfig {
     @Id
     private String id;
 
+    // Optimistic lock: full-document saves only apply to the version they read.
+    // A wrapper, so null (not 0) marks a folder that was never saved
+    @Version
+    private Long version;
+
     private String name;
     private boolean configured;
 
@@ -35,6 +41,14 @@ public class O2DConfig {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -7,9 +7,18 @@ import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * One saved version of an order. {@code fields} holds the order detail
+ * values under canonical keys (see {@link OrderFieldKeys}); the customer,
+ * company and planning status are also kept as typed properties, resolved
+ * the way the pages show them ("-" for a missing name, Pending for a
+ * missing status).
+ */
 @Document(collection = "order_entries")
 public class OrderEntry {
 
+    public static final String STATUS_PENDING = "Pending";
+
     @Id
     private String id;
 
@@ -18,6 +27,33 @@ public class OrderEntry {
     private Instant createdAt;
     private Map<String, String> fields = new LinkedHashMap<>();
 
+    private String customerName;
+    private String companyName;
+    private String planningStatus;
+
+    /**
+     * Rewrite the fields under their canonical keys and resolve the promoted
+     * properties from them. Every write of an entry goes through here (see
+     * OrderEntryService), and it is idempotent.
+     */
+    public OrderEntry canonicalize() {
+        fields = OrderFieldKeys.canonicalize(fields);
+        customerName = nameOf(fields.get(OrderFieldKeys.CUSTOMER_NAME));
+        companyName = nameOf(fields.get(OrderFieldKeys.COMPANY_NAME));
+        planningStatus = planningStatusOf(fields.get(OrderFieldKeys.PLANNING_STATUS));
+        return this;
+    }
+
+    // A customer or company name as the pages show it: "-" when missing or blank
+    public static String nameOf(String value) {
+        return value == null || value.isBlank() ? "-" : value;
+    }
+
+    // As the order entry page shows it: a missing or blank status is Pending
+    public static String planningStatusOf(String value) {
+        return value == null || value.isBlank() ? STATUS_PENDING : value;
+    }
+
     public String getId() {
         return id;
     }
@@ -57,4 +93,28 @@ public class OrderEntry {
     public void setFields(Map<String, String> fields) {
         this.fields = fields;
     }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public void setCompanyName(String companyName) {
+        this.companyName = companyName;
+    }
+
+    public String getPlanningStatus() {
+        return planningStatus;
+    }
+
+    public void setPlanningStatus(String planningStatus) {
+        this.planningStatus = planningStatus;
+    }
 }
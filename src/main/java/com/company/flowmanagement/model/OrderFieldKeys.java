@@ -0,0 +1,89 @@
+package com.company.flowmanagement.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keys of {@link OrderEntry#getFields()}. The canonical key of a column
+ * label ("Customer Name") is its normalized form ("customer_name"): lower
+ * case, runs of anything but a-z / 0-9 turned into one underscore, no
+ * leading or trailing underscores. Entries are stored under canonical keys
+ * (see {@link OrderEntry#canonicalize()}), so reading a column is one map
+ * lookup.
+ *
+ * <p>Field keys come from a small vocabulary (the folders' column labels),
+ * so normalized keys are memoized; the normalization itself is a single
+ * pass over the characters instead of three regex replacements.
+ */
+public final class OrderFieldKeys {
+
+    // Canonical keys of the fields promoted onto OrderEntry
+    public static final String CUSTOMER_NAME = "customer_name";
+    public static final String COMPANY_NAME = "company_name";
+    public static final String PLANNING_STATUS = "planning_status";
+
+    // Enough for every label of every folder; past it keys are normalized uncached
+    private static final int MEMO_LIMIT = 10_000;
+    private static final Map<String, String> MEMO = new ConcurrentHashMap<>();
+
+    private OrderFieldKeys() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String normalized = MEMO.get(value);
+        if (normalized == null) {
+            normalized = normalizeUncached(value);
+            if (MEMO.size() < MEMO_LIMIT) {
+                MEMO.put(value, normalized);
+            }
+        }
+        return normalized;
+    }
+
+    // Same result as trim, toLowerCase, [^a-z0-9]+ -> "_", then ^_+ / _+$ removed
+    static String normalizeUncached(String value) {
+        String lower = value.trim().toLowerCase();
+        StringBuilder normalized = new StringBuilder(lower.length());
+        boolean separator = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (separator && normalized.length() > 0) {
+                    normalized.append('_');
+                }
+                normalized.append(c);
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * The fields of an entry under their canonical keys: each key normalized
+     * (a key that normalizes to nothing is kept as it is). When several keys
+     * normalize alike, the one already canonical wins, otherwise the first in
+     * map order, as the lookups that used to read raw keys resolved them.
+     */
+    public static Map<String, String> canonicalize(Map<String, String> fields) {
+        Map<String, String> canonical = new LinkedHashMap<>();
+        if (fields == null) {
+            return canonical;
+        }
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            String key = field.getKey() == null ? "" : field.getKey();
+            String normalized = normalize(key);
+            String target = normalized.isEmpty() ? key : normalized;
+            // containsKey, not putIfAbsent: a stored null is a value too
+            if (normalized.equals(key) || !canonical.containsKey(target)) {
+                canonical.put(target, field.getValue());
+            }
+        }
+        return canonical;
+    }
+}
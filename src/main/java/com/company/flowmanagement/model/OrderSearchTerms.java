@@ -0,0 +1,86 @@
+package com.company.flowmanagement.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search terms of an order (see {@link LatestOrderEntry#getSearchTerms()}):
+ * every word of its order id and field values, lower case, split on anything
+ * but letters and digits, stored with all of its prefixes (edge n-grams). A
+ * query matches an order when each of its words is a prefix of one of the
+ * order's words, so "acme ind" finds "ACME Industries" while it is typed.
+ */
+public final class OrderSearchTerms {
+
+    // Longest prefix stored; longer query words are cut to it
+    static final int MAX_GRAM = 20;
+    // Per order; the order id and names come first, so they are always in
+    static final int MAX_TERMS = 512;
+    // Words per query
+    static final int MAX_QUERY_WORDS = 8;
+
+    private OrderSearchTerms() {
+    }
+
+    public static List<String> of(String orderId, Map<String, String> fields) {
+        Set<String> terms = new LinkedHashSet<>();
+        add(terms, orderId);
+        if (fields != null) {
+            add(terms, fields.get(OrderFieldKeys.CUSTOMER_NAME));
+            add(terms, fields.get(OrderFieldKeys.COMPANY_NAME));
+            for (String value : fields.values()) {
+                add(terms, value);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    // Words of a query, each as stored in the index; empty when there is nothing to search for
+    public static List<String> query(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : words(text)) {
+            String term = word.length() > MAX_GRAM ? word.substring(0, MAX_GRAM) : word;
+            if (!words.contains(term)) {
+                words.add(term);
+            }
+            if (words.size() == MAX_QUERY_WORDS) {
+                break;
+            }
+        }
+        return words;
+    }
+
+    private static void add(Set<String> terms, String value) {
+        for (String word : words(value)) {
+            for (int length = 1; length <= Math.min(word.length(), MAX_GRAM); length++) {
+                if (terms.size() >= MAX_TERMS) {
+                    return;
+                }
+                terms.add(word.substring(0, length));
+            }
+        }
+    }
+
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
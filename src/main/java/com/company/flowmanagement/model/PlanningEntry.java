@@ -14,6 +14,7 @@ public class PlanningEntry {
     private String folderId;
     private String orderId;
     private String startDate;
+    private Integer startDay; // startDate as epoch day, null when it is not a date
     private Instant createdAt;
 
     public String getId() {
@@ -46,6 +47,16 @@ public class PlanningEntry {
 
     public void setStartDate(String startDate) {
         this.startDate = startDate;
+        this.startDay = EpochDays.of(startDate);
+    }
+
+    // Entries saved before startDay existed fall back to parsing startDate
+    public Integer getStartDay() {
+        return startDay != null ? startDay : EpochDays.of(startDate);
+    }
+
+    public void setStartDay(Integer startDay) {
+        this.startDay = startDay;
     }
 
     public Instant getCreatedAt() {
@@ -1,11 +1,23 @@
 package com.company.flowmanagement.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Document(collection = "tasks")
+@CompoundIndexes({
+        // Assigned / delegated listings, newest first with _id as keyset tie-breaker
+        @CompoundIndex(name = "assignedTo_created_id", def = "{'assignedToId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "assignedBy_created_id", def = "{'assignedById': 1, 'createdAt': -1, '_id': -1}"),
+        // Overdue sweep: open statuses whose due day has passed
+        @CompoundIndex(name = "status_due", def = "{'status': 1, 'dueDay': 1}"),
+        // One materialized task per recurrence rule and day (sparse: plain tasks have neither field)
+        @CompoundIndex(name = "recurrence_occurrence", def = "{'recurrenceOf': 1, 'occurrenceDay': 1}",
+                unique = true, sparse = true)
+})
 public class Task {
 
     @Id
@@ -29,6 +41,7 @@ public class Task {
 
     // Dates
     private String targetDate;
+    private Integer dueDay; // targetDate as epoch day (see EpochDays), kept in sync by setTargetDate
     private String completionDate;
 
     // Status and tracking
@@ -46,6 +59,11 @@ public class Task {
     private String repeatDay; // Monday, Tuesday, etc.
     private String repeatWeek; // First, Second, etc. (for monthly)
 
+    // Recurrence bookkeeping (see RecurrenceEngine)
+    private Integer materializedThrough; // on a rule: last epoch day already expanded
+    private String recurrenceOf; // on an occurrence: id of the repeatable task it came from
+    private Integer occurrenceDay; // on an occurrence: its epoch day
+
     // Internal task flag
     private Boolean isInternal = false;
 
@@ -163,6 +181,15 @@ public class Task {
 
     public void setTargetDate(String targetDate) {
         this.targetDate = targetDate;
+        this.dueDay = EpochDays.of(targetDate);
+    }
+
+    public Integer getDueDay() {
+        return dueDay;
+    }
+
+    public void setDueDay(Integer dueDay) {
+        this.dueDay = dueDay;
     }
 
     public String getCompletionDate() {
@@ -244,6 +271,30 @@ public class Task {
         this.repeatWeek = repeatWeek;
     }
 
+    public Integer getMaterializedThrough() {
+        return materializedThrough;
+    }
+
+    public void setMaterializedThrough(Integer materializedThrough) {
+        this.materializedThrough = materializedThrough;
+    }
+
+    public String getRecurrenceOf() {
+        return recurrenceOf;
+    }
+
+    public void setRecurrenceOf(String recurrenceOf) {
+        this.recurrenceOf = recurrenceOf;
+    }
+
+    public Integer getOccurrenceDay() {
+        return occurrenceDay;
+    }
+
+    public void setOccurrenceDay(Integer occurrenceDay) {
+        this.occurrenceDay = occurrenceDay;
+    }
+
     public Boolean getIsInternal() {
         return isInternal;
     }
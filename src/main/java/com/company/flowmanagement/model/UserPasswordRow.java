@@ -0,0 +1,12 @@
+package com.company.flowmanagement.model;
+
+/**
+ * Closed projection of {@link User}: the username and the display password
+ * shown on the employee manager, without the rest of the account.
+ */
+public interface UserPasswordRow {
+
+    String getUsername();
+
+    String getRawPassword();
+}
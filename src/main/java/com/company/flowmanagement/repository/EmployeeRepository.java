@@ -1,6 +1,7 @@
 package com.company.flowmanagement.repository;
 
 import com.company.flowmanagement.model.Employee;
+import com.company.flowmanagement.model.EmployeeRow;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
@@ -12,5 +13,8 @@ public interface EmployeeRepository extends MongoRepository<Employee, String> {
 
     List<Employee> findByAdminId(String adminId);
 
+    // Table rows only (EmployeeRow constructor fields)
+    List<EmployeeRow> findRowsByAdminId(String adminId);
+
     Optional<Employee> findByName(String name);
 }
@@ -0,0 +1,22 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.FmsStepInstance;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface FmsStepInstanceRepository extends MongoRepository<FmsStepInstance, String>,
+        FmsStepInstanceRepositoryCustom {
+
+    List<FmsStepInstance> findByFolderId(String folderId);
+
+    // Every step of a folder in board order (FolderBoard)
+    List<FmsStepInstance> findByFolderIdOrderByPlannedAtAscStepIndexAsc(String folderId);
+
+    List<FmsStepInstance> findByFolderIdAndOrderId(String folderId, String orderId);
+
+    List<FmsStepInstance> findByFolderIdAndOrderIdIn(String folderId, Collection<String> orderIds);
+
+    long deleteByFolderId(String folderId);
+}
@@ -0,0 +1,11 @@
+package com.company.flowmanagement.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface FmsStepInstanceRepositoryCustom {
+
+    // One multi-document update of the progress fields of a folder's instances
+    long updateStatusInFolder(String folderId, Collection<String> instanceIds, String status, String remarks,
+            String completionDate, Instant updatedAt);
+}
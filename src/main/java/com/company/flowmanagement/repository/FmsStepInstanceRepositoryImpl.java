@@ -0,0 +1,31 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.FmsStepInstance;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public class FmsStepInstanceRepositoryImpl implements FmsStepInstanceRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public FmsStepInstanceRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long updateStatusInFolder(String folderId, Collection<String> instanceIds, String status,
+            String remarks, String completionDate, Instant updatedAt) {
+        Query query = new Query(Criteria.where("folderId").is(folderId).and("_id").in(instanceIds));
+        Update update = new Update()
+                .set("status", status)
+                .set("remarks", remarks)
+                .set("completionDate", completionDate)
+                .set("updatedAt", updatedAt);
+        return mongoTemplate.updateMulti(query, update, FmsStepInstance.class).getModifiedCount();
+    }
+}
@@ -0,0 +1,22 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.InboxItem;
+import com.company.flowmanagement.model.InboxRow;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InboxItemRepository extends MongoRepository<InboxItem, String>, InboxItemRepositoryCustom {
+
+    // Whole inbox of one user (owner_kind_created index)
+    // (only the InboxRow columns)
+    List<InboxRow> findRowsByOwnerKeyOrderByCreatedAtDesc(String ownerKey);
+
+    List<InboxItem> findByOwnerKeyAndKindOrderByCreatedAtDesc(String ownerKey, String kind);
+
+    // Existing projections of a batch of source documents (source_ref index)
+    List<InboxItem> findBySourceAndSourceIdIn(String source, Collection<String> sourceIds);
+
+    long deleteBySourceAndSourceIdIn(String source, Collection<String> sourceIds);
+}
@@ -0,0 +1,24 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.DashboardCounts;
+import com.company.flowmanagement.model.InboxDetailRow;
+import com.company.flowmanagement.model.InboxItem;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface InboxItemRepositoryCustom {
+
+    // Status counters and OTC score of a user's assigned tasks, computed in MongoDB
+    DashboardCounts aggregateDashboardCounts(String ownerKey);
+
+    // One keyset page of a task bucket, newest first (createdAt desc, _id desc).
+    // Optional filters are skipped when null; the page starts strictly after
+    // (afterCreatedAt, afterId) when those are given.
+    List<InboxDetailRow> findBucketPage(String ownerKey, String bucket, String status, String targetFrom,
+            String targetTo, Instant afterCreatedAt, String afterId, int limit);
+
+    // All of a user's rows of one kind, newest first, read through a cursor of batchSize rows
+    Stream<InboxItem> streamOwned(String ownerKey, String kind, int batchSize);
+}
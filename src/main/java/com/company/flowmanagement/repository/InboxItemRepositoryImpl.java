@@ -0,0 +1,124 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.DashboardCounts;
+import com.company.flowmanagement.model.InboxDetailRow;
+import com.company.flowmanagement.model.InboxItem;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class InboxItemRepositoryImpl implements InboxItemRepositoryCustom {
+
+    // Completed in any case, as TaskService.getUserTasks buckets it
+    private static final Pattern COMPLETED = Pattern.compile("^completed$", Pattern.CASE_INSENSITIVE);
+    // A target date proper; FMS rows without one hold "-"
+    private static final Pattern ISO_DATE = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}$");
+
+    private final MongoTemplate mongoTemplate;
+
+    public InboxItemRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public DashboardCounts aggregateDashboardCounts(String ownerKey) {
+        // Missing status counts as PENDING, like the Task default in the UI
+        Document status = new Document("$ifNull", List.of("$status", "PENDING"));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("ownerKey").is(ownerKey).and("kind").is(InboxItem.KIND_ASSIGNED)),
+                Aggregation.stage(new Document("$group", new Document("_id", null)
+                        .append("total", new Document("$sum", 1))
+                        .append("onTime", countWhereIn(status, List.of("On Time", "Completed")))
+                        .append("onTimeStatus", countWhereIn(status, List.of("On Time")))
+                        .append("inProgress", countWhereIn(status, List.of("In Progress")))
+                        .append("delayed", countWhereIn(status, List.of("Delayed")))
+                        .append("overdue", countWhereIn(status, List.of("Overdue")))
+                        .append("pending", countWhereIn(status, List.of("PENDING"))))),
+                Aggregation.stage(new Document("$project", new Document("_id", 0)
+                        .append("total", 1).append("onTime", 1).append("onTimeStatus", 1)
+                        .append("inProgress", 1).append("delayed", 1).append("overdue", 1).append("pending", 1)
+                        .append("otcScore", new Document("$cond", List.of(
+                                new Document("$gt", List.of("$total", 0)),
+                                new Document("$multiply", List.of(
+                                        new Document("$divide", List.of("$onTime", "$total")), 100)),
+                                0))))));
+
+        DashboardCounts counts = mongoTemplate
+                .aggregate(aggregation, InboxItem.class, DashboardCounts.class)
+                .getUniqueMappedResult();
+        // No rows at all: the $group stage emits nothing
+        return counts != null ? counts : new DashboardCounts();
+    }
+
+    @Override
+    public List<InboxDetailRow> findBucketPage(String ownerKey, String bucket, String status, String targetFrom,
+            String targetTo, Instant afterCreatedAt, String afterId, int limit) {
+        Criteria criteria = Criteria.where("ownerKey").is(ownerKey);
+        if (InboxItem.BUCKET_DELEGATED.equals(bucket)) {
+            criteria.and("kind").is(InboxItem.KIND_DELEGATED);
+            if (status != null) {
+                criteria.and("status").is(status);
+            }
+        } else {
+            criteria.and("kind").is(InboxItem.KIND_ASSIGNED);
+            boolean completed = InboxItem.BUCKET_COMPLETED.equals(bucket);
+            if (status != null && completed != "Completed".equalsIgnoreCase(status)) {
+                // Status filter outside the bucket: nothing can match
+                return List.of();
+            }
+            if (completed) {
+                criteria.and("status").regex(COMPLETED);
+            } else if (status != null) {
+                criteria.and("status").is(status);
+            } else {
+                criteria.and("status").not().regex(COMPLETED);
+            }
+        }
+
+        // Target dates are ISO yyyy-MM-dd strings, so the range compares lexically;
+        // anything else ("-") is not in any range
+        if (targetFrom != null || targetTo != null) {
+            Criteria target = criteria.and("targetDate").regex(ISO_DATE);
+            if (targetFrom != null) {
+                target.gte(targetFrom);
+            }
+            if (targetTo != null) {
+                target.lte(targetTo);
+            }
+        }
+
+        if (afterCreatedAt != null && afterId != null) {
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(afterCreatedAt),
+                    Criteria.where("createdAt").is(afterCreatedAt).and("_id").lt(afterId)));
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit);
+        return mongoTemplate.query(InboxItem.class).as(InboxDetailRow.class).matching(query).all();
+    }
+
+    @Override
+    public Stream<InboxItem> streamOwned(String ownerKey, String kind, int batchSize) {
+        // owner_kind_created_id index: one kind at a time keeps the sort on the index
+        Query query = new Query(Criteria.where("ownerKey").is(ownerKey).and("kind").is(kind))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, InboxItem.class);
+    }
+
+    private static Document countWhereIn(Document status, List<String> values) {
+        return new Document("$sum", new Document("$cond", List.of(
+                new Document("$in", List.of(status, values)), 1, 0)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.LatestOrderEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+public interface LatestOrderEntryRepository
+        extends MongoRepository<LatestOrderEntry, String>, LatestOrderEntryRepositoryCustom {
+
+    long countByFolderId(String folderId);
+
+    LatestOrderEntry findFirstByFolderIdOrderByCreatedAtDesc(String folderId);
+
+    // Order ids only, newest first (folder_status_created_id index)
+    @Query(value = "{ 'folderId': ?0, 'planningStatus': ?1 }", fields = "{ 'orderId': 1 }",
+            sort = "{ 'createdAt': -1 }")
+    List<LatestOrderEntry> findOrderIdsByFolderIdAndPlanningStatus(String folderId, String planningStatus);
+}
@@ -0,0 +1,45 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.LatestOrderEntry;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface LatestOrderEntryRepositoryCustom {
+
+    // Upsert the row unless it already holds a newer version; false when it does
+    boolean advance(LatestOrderEntry latest);
+
+    // advance for many rows in one unordered bulk write
+    void advanceAll(List<LatestOrderEntry> latest);
+
+    /**
+     * One page of the order entry grid of a folder, with only the given keys
+     * of the fields map. Filters are optional (null): order id and customer
+     * match case-insensitively from the start, status exactly. Rows come
+     * newest first ({@code byOrderId} false) or by order id, reversed when
+     * {@code ascending} flips; the page starts after the keyset of the last
+     * row served (createdAt + _id, or the order id).
+     */
+    List<LatestOrderEntry> findGridPage(String folderId, String orderId, String customer, String status,
+            boolean byOrderId, boolean ascending, Instant afterCreatedAt, String afterKey,
+            Collection<String> fieldKeys, int limit);
+
+    // Every order of a folder, newest first, with the grid columns, read through a cursor of batchSize rows
+    Stream<LatestOrderEntry> streamFolder(String folderId, Collection<String> fieldKeys, int batchSize);
+
+    // Rows matching the grid filters, regardless of paging
+    long countGrid(String folderId, String orderId, String customer, String status);
+
+    /**
+     * Orders whose search terms contain all of the given terms, across
+     * folders or in one ({@code folderId} not null), newest first; only the
+     * columns of a search result.
+     */
+    List<LatestOrderEntry> search(List<String> terms, String folderId, int limit);
+
+    // Resolve planningStatus and searchTerms on rows copied before they were stored; the number of rows stamped
+    long stampMissingDerivedFields();
+}
@@ -0,0 +1,216 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.LatestOrderEntry;
+import com.company.flowmanagement.model.OrderEntry;
+import com.company.flowmanagement.model.OrderFieldKeys;
+import com.company.flowmanagement.model.OrderSearchTerms;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class LatestOrderEntryRepositoryImpl implements LatestOrderEntryRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public LatestOrderEntryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean advance(LatestOrderEntry latest) {
+        try {
+            mongoTemplate.upsert(advanceQuery(latest), advanceUpdate(latest), LatestOrderEntry.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // The row exists with a newer version: the upsert tried to insert a second one
+            return false;
+        }
+    }
+
+    @Override
+    public void advanceAll(List<LatestOrderEntry> latest) {
+        if (latest.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LatestOrderEntry.class);
+        for (LatestOrderEntry row : latest) {
+            bulk.upsert(advanceQuery(row), advanceUpdate(row));
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Duplicate keys are rows holding a newer version, as in advance; anything else is an error
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Matches when the row holds this version (an in-place edit) or an older one
+    private static Query advanceQuery(LatestOrderEntry latest) {
+        return new Query(Criteria.where("_id").is(latest.getId()).orOperator(
+                Criteria.where("entryId").is(latest.getEntryId()),
+                Criteria.where("createdAt").lt(createdAtOf(latest)),
+                Criteria.where("createdAt").is(null)));
+    }
+
+    private static Update advanceUpdate(LatestOrderEntry latest) {
+        return new Update()
+                .set("folderId", latest.getFolderId())
+                .set("orderId", latest.getOrderId())
+                .set("entryId", latest.getEntryId())
+                .set("createdAt", createdAtOf(latest))
+                .set("fields", latest.getFields())
+                .set("customerName", latest.getCustomerName())
+                .set("companyName", latest.getCompanyName())
+                .set("planningStatus", latest.getPlanningStatus())
+                .set("searchTerms", latest.getSearchTerms())
+                .set("updatedAt", latest.getUpdatedAt());
+    }
+
+    private static Instant createdAtOf(LatestOrderEntry latest) {
+        return latest.getCreatedAt() != null ? latest.getCreatedAt() : Instant.EPOCH;
+    }
+
+    @Override
+    public List<LatestOrderEntry> findGridPage(String folderId, String orderId, String customer, String status,
+            boolean byOrderId, boolean ascending, Instant afterCreatedAt, String afterKey,
+            Collection<String> fieldKeys, int limit) {
+        Criteria criteria = gridCriteria(folderId, orderId, customer, status);
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort;
+        if (byOrderId) {
+            // Order ids are unique within a folder: they are the whole keyset
+            if (afterKey != null) {
+                Criteria after = Criteria.where("orderId");
+                criteria = new Criteria().andOperator(criteria, ascending ? after.gt(afterKey) : after.lt(afterKey));
+            }
+            sort = Sort.by(direction, "orderId");
+        } else {
+            if (afterCreatedAt != null && afterKey != null) {
+                criteria = new Criteria().andOperator(criteria, ascending
+                        ? new Criteria().orOperator(
+                                Criteria.where("createdAt").gt(afterCreatedAt),
+                                Criteria.where("createdAt").is(afterCreatedAt).and("_id").gt(afterKey))
+                        : new Criteria().orOperator(
+                                Criteria.where("createdAt").lt(afterCreatedAt),
+                                Criteria.where("createdAt").is(afterCreatedAt).and("_id").lt(afterKey)));
+            }
+            sort = Sort.by(direction, "createdAt").and(Sort.by(direction, "_id"));
+        }
+
+        Query query = new Query(criteria).with(sort).limit(limit);
+        includeColumns(query, fieldKeys);
+        return mongoTemplate.find(query, LatestOrderEntry.class);
+    }
+
+    @Override
+    public Stream<LatestOrderEntry> streamFolder(String folderId, Collection<String> fieldKeys, int batchSize) {
+        // Walks the folder_created_id index: no sort in memory, however many orders
+        Query query = new Query(Criteria.where("folderId").is(folderId))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .cursorBatchSize(batchSize);
+        includeColumns(query, fieldKeys);
+        return mongoTemplate.stream(query, LatestOrderEntry.class);
+    }
+
+    // The grid columns, with only the given keys of the fields map (all of it when a key is no plain path)
+    private static void includeColumns(Query query, Collection<String> fieldKeys) {
+        Field projection = query.fields().include("orderId", "entryId", "createdAt", "customerName",
+                "companyName", "planningStatus");
+        boolean pathSafe = fieldKeys.stream()
+                .allMatch(key -> !key.isEmpty() && !key.contains(".") && !key.startsWith("$"));
+        if (pathSafe) {
+            for (String key : fieldKeys) {
+                projection.include("fields." + key);
+            }
+        } else {
+            projection.include("fields");
+        }
+    }
+
+    @Override
+    public long countGrid(String folderId, String orderId, String customer, String status) {
+        return mongoTemplate.count(new Query(gridCriteria(folderId, orderId, customer, status)),
+                LatestOrderEntry.class);
+    }
+
+    @Override
+    public List<LatestOrderEntry> search(List<String> terms, String folderId, int limit) {
+        // Walks the terms_created index from the first term, newest first; the other terms filter
+        Criteria criteria = Criteria.where("searchTerms").all(terms);
+        if (folderId != null) {
+            criteria.and("folderId").is(folderId);
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt")).limit(limit);
+        query.fields().include("folderId", "orderId", "entryId", "createdAt", "customerName", "companyName",
+                "planningStatus");
+        return mongoTemplate.find(query, LatestOrderEntry.class);
+    }
+
+    @Override
+    public long stampMissingDerivedFields() {
+        long stamped = 0;
+        String lastId = null;
+        while (true) {
+            Criteria criteria = new Criteria().orOperator(
+                    Criteria.where("planningStatus").exists(false),
+                    Criteria.where("searchTerms").exists(false));
+            if (lastId != null) {
+                criteria = new Criteria().andOperator(criteria, Criteria.where("_id").gt(lastId));
+            }
+            Query query = new Query(criteria).with(Sort.by("_id")).limit(BATCH_SIZE);
+            query.fields().include("_id", "orderId", "fields");
+            List<LatestOrderEntry> rows = mongoTemplate.find(query, LatestOrderEntry.class);
+            if (rows.isEmpty()) {
+                return stamped;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LatestOrderEntry.class);
+            for (LatestOrderEntry row : rows) {
+                // Same values as LatestOrderEntry.of; a concurrent advance writes them too
+                bulk.updateOne(new Query(Criteria.where("_id").is(row.getId())), new Update()
+                        .set("planningStatus", OrderEntry.planningStatusOf(
+                                row.getFields().get(OrderFieldKeys.PLANNING_STATUS)))
+                        .set("searchTerms", OrderSearchTerms.of(row.getOrderId(), row.getFields())));
+            }
+            stamped += bulk.execute().getModifiedCount();
+            lastId = rows.get(rows.size() - 1).getId();
+            if (rows.size() < BATCH_SIZE) {
+                return stamped;
+            }
+        }
+    }
+
+    private static Criteria gridCriteria(String folderId, String orderId, String customer, String status) {
+        Criteria criteria = Criteria.where("folderId").is(folderId);
+        if (status != null) {
+            criteria.and("planningStatus").is(status);
+        }
+        // Prefix filters are checked on the rows the folder index range yields
+        if (orderId != null) {
+            criteria.and("orderId").regex("^" + Pattern.quote(orderId), "i");
+        }
+        if (customer != null) {
+            criteria.and("customerName").regex("^" + Pattern.quote(customer), "i");
+        }
+        return criteria;
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface O2DConfigRepository extends MongoRepository<O2DConfig, String> {
+public interface O2DConfigRepository extends MongoRepository<O2DConfig, String>, O2DConfigRepositoryCustom {
 
     List<O2DConfig> findByNameIgnoreCase(String name);
 
@@ -0,0 +1,7 @@
+package com.company.flowmanagement.repository;
+
+public interface O2DConfigRepositoryCustom {
+
+    // Give documents written before versioning a version of 0
+    long stampMissingVersions();
+}
@@ -0,0 +1,24 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.O2DConfig;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class O2DConfigRepositoryImpl implements O2DConfigRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public O2DConfigRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long stampMissingVersions() {
+        // Loaded without a version, a folder reads as new and save() would insert it again
+        Query query = new Query(Criteria.where("version").exists(false));
+        return mongoTemplate.updateMulti(query, new Update().set("version", 0L), O2DConfig.class)
+                .getModifiedCount();
+    }
+}
@@ -5,7 +5,6 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface OrderEntryRepository extends MongoRepository<OrderEntry, String> {
+public interface OrderEntryRepository extends MongoRepository<OrderEntry, String>, OrderEntryRepositoryCustom {
     List<OrderEntry> findByFolderIdOrderByCreatedAtDesc(String folderId);
-    OrderEntry findFirstByFolderIdAndOrderIdOrderByCreatedAtDesc(String folderId, String orderId);
 }
@@ -0,0 +1,15 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.OrderEntry;
+
+import java.util.stream.Stream;
+
+public interface OrderEntryRepositoryCustom {
+
+    // Set one canonical key of the fields map in place (and its promoted property, if any); the
+    // updated entry, or null when it does not exist
+    OrderEntry setField(String entryId, String key, String value);
+
+    // The newest version of every (folderId, orderId), streamed from the server
+    Stream<OrderEntry> streamLatestVersions();
+}
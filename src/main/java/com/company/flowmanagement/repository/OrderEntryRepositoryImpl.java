@@ -0,0 +1,49 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.OrderEntry;
+import com.company.flowmanagement.model.OrderFieldKeys;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.stream.Stream;
+
+public class OrderEntryRepositoryImpl implements OrderEntryRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public OrderEntryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public OrderEntry setField(String entryId, String key, String value) {
+        Update update = new Update().set("fields." + key, value);
+        // A promoted field's property moves with it (see OrderEntry#canonicalize)
+        if (OrderFieldKeys.CUSTOMER_NAME.equals(key)) {
+            update.set("customerName", OrderEntry.nameOf(value));
+        } else if (OrderFieldKeys.COMPANY_NAME.equals(key)) {
+            update.set("companyName", OrderEntry.nameOf(value));
+        } else if (OrderFieldKeys.PLANNING_STATUS.equals(key)) {
+            update.set("planningStatus", OrderEntry.planningStatusOf(value));
+        }
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(entryId)), update,
+                FindAndModifyOptions.options().returnNew(true), OrderEntry.class);
+    }
+
+    @Override
+    public Stream<OrderEntry> streamLatestVersions() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt")),
+                Aggregation.group("folderId", "orderId").first(Aggregation.ROOT).as("entry"),
+                Aggregation.replaceRoot("entry"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoTemplate.aggregateStream(aggregation, mongoTemplate.getCollectionName(OrderEntry.class),
+                OrderEntry.class);
+    }
+}
@@ -5,6 +5,6 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface PlanningEntryRepository extends MongoRepository<PlanningEntry, String> {
+public interface PlanningEntryRepository extends MongoRepository<PlanningEntry, String>, PlanningEntryRepositoryCustom {
     List<PlanningEntry> findByFolderIdOrderByCreatedAtAsc(String folderId);
 }
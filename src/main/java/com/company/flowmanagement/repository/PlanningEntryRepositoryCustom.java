@@ -0,0 +1,11 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.PlanningEntry;
+
+import java.util.stream.Stream;
+
+public interface PlanningEntryRepositoryCustom {
+
+    // Planning entries of a folder, oldest first, read through a cursor of batchSize rows
+    Stream<PlanningEntry> streamFolder(String folderId, int batchSize);
+}
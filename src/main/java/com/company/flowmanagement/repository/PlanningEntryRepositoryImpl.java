@@ -0,0 +1,27 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.PlanningEntry;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.stream.Stream;
+
+public class PlanningEntryRepositoryImpl implements PlanningEntryRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PlanningEntryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Stream<PlanningEntry> streamFolder(String folderId, int batchSize) {
+        // Same order as findByFolderIdOrderByCreatedAtAsc, on the folder_created index
+        Query query = new Query(Criteria.where("folderId").is(folderId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, PlanningEntry.class);
+    }
+}
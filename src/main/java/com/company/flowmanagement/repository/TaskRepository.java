@@ -4,9 +4,10 @@ import com.company.flowmanagement.model.Task;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface TaskRepository extends MongoRepository<Task, String> {
+public interface TaskRepository extends MongoRepository<Task, String>, TaskRepositoryCustom {
 
     // Find tasks assigned to a specific user
     List<Task> findByAssignedToIdOrderByCreatedAtDesc(String assignedToId);
@@ -26,6 +27,8 @@ public interface TaskRepository extends MongoRepository<Task, String> {
     // Find tasks by task ID
     Task findByTaskId(String taskId);
 
+    List<Task> findByTaskIdIn(Collection<String> taskIds);
+
     // Custom query to find active tasks (not completed) assigned to user
     @Query("{ 'assignedToId': ?0, 'status': { $ne: 'Completed' } }")
     List<Task> findActiveTasksByAssignedToId(String assignedToId);
@@ -38,14 +41,28 @@ public interface TaskRepository extends MongoRepository<Task, String> {
     @Query("{ 'assignedById': ?0, 'assignedToId': { $ne: ?0 } }")
     List<Task> findDelegatedTasksByAssignedById(String assignedById);
 
+    // Only the taskId of every generated ID (seeds the task sequence)
+    @Query(value = "{ 'taskId': { $regex: '^TASK-' } }", fields = "{ 'taskId': 1 }")
+    List<Task> findAllTaskIds();
+
+    // Repeatable tasks (recurrence rules), not their materialized occurrences
+    @Query("{ 'isRepeatable': true }")
+    List<Task> findRecurrenceRules();
+
+    // Occurrences of some rules already materialized in a day range (recurrence_occurrence index)
+    @Query(value = "{ 'recurrenceOf': { $in: ?0 }, 'occurrenceDay': { $gte: ?1, $lte: ?2 } }",
+            fields = "{ 'recurrenceOf': 1, 'occurrenceDay': 1 }")
+    List<Task> findOccurrences(Collection<String> ruleIds, int fromDay, int toDay);
+
     // Count tasks by status for dashboard stats
     long countByStatus(String status);
 
     // Find overdue tasks
-    @Query("{ 'targetDate': { $lt: ?0 }, 'status': { $ne: 'Completed' } }")
-    List<Task> findOverdueTasks(String currentDate);
+    // (dates are epoch days, see EpochDays)
+    @Query("{ 'dueDay': { $lt: ?0 }, 'status': { $ne: 'Completed' } }")
+    List<Task> findOverdueTasks(int currentDay);
 
     // Find tasks due today or before
-    @Query("{ 'targetDate': { $lte: ?0 }, 'status': { $ne: 'Completed' } }")
-    List<Task> findTasksDueByDate(String date);
+    @Query("{ 'dueDay': { $lte: ?0 }, 'status': { $ne: 'Completed' } }")
+    List<Task> findTasksDueByDate(int day);
 }
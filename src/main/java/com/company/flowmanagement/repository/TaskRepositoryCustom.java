@@ -0,0 +1,27 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.Task;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    // Unordered insertMany of one chunk; returns the error message of every
+    // task that was not written, keyed by its index in {@code tasks}
+    Map<Integer, String> insertUnordered(List<Task> tasks);
+
+    // Advance a recurrence rule's watermark (never moves it backwards)
+    void advanceMaterializedThrough(String ruleId, int day);
+
+    // One multi-document update of the progress fields of many tasks (by taskId)
+    long updateStatusByTaskIds(Collection<String> taskIds, String status, String remarks, String completionDate,
+            Instant updatedAt);
+
+    // Tasks of a client organization assigned to or by one user, newest first,
+    // read through a cursor of batchSize rows
+    Stream<Task> streamByClientOrgIdForUser(String clientOrgId, String userId, int batchSize);
+}
@@ -0,0 +1,84 @@
+package com.company.flowmanagement.repository;
+
+import com.company.flowmanagement.model.Task;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public TaskRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Task> tasks) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (tasks.isEmpty()) {
+            return errors;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class)
+                    .insert(tasks)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Unordered: everything except the reported writes went through
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        } catch (DataAccessException e) {
+            // Some write errors (e.g. duplicate keys) are translated without the bulk wrapper
+            if (!(e.getCause() instanceof MongoBulkWriteException bulkError)) {
+                throw e;
+            }
+            for (BulkWriteError error : bulkError.getWriteErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public long updateStatusByTaskIds(Collection<String> taskIds, String status, String remarks,
+            String completionDate, Instant updatedAt) {
+        Query query = new Query(Criteria.where("taskId").in(taskIds));
+        Update update = new Update()
+                .set("status", status)
+                .set("remarks", remarks)
+                .set("completionDate", completionDate)
+                .set("updatedAt", updatedAt);
+        return mongoTemplate.updateMulti(query, update, Task.class).getModifiedCount();
+    }
+
+    @Override
+    public Stream<Task> streamByClientOrgIdForUser(String clientOrgId, String userId, int batchSize) {
+        // clientOrg_created index, like findByClientOrgIdOrderByCreatedAtDesc; the user filters the scan
+        Query query = new Query(Criteria.where("clientOrgId").is(clientOrgId).orOperator(
+                Criteria.where("assignedToId").is(userId), Criteria.where("assignedById").is(userId)))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Task.class);
+    }
+
+    @Override
+    public void advanceMaterializedThrough(String ruleId, int day) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(ruleId)),
+                new Update().max("materializedThrough", day), Task.class);
+    }
+}
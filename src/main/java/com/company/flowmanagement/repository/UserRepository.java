@@ -1,14 +1,22 @@
 package com.company.flowmanagement.repository;
 
 import com.company.flowmanagement.model.User;
+import com.company.flowmanagement.model.UserPasswordRow;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserRepository extends MongoRepository<User, String> {
 
     User findByUsername(String username);
 
+    // Batch lookup of many usernames in one query
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    // Same lookup reading only username and rawPassword
+    List<UserPasswordRow> findPasswordRowsByUsernameIn(Collection<String> usernames);
+
     List<User> findByRole(String role);
 
     long deleteByUsername(String username);
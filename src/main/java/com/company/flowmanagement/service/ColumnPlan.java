@@ -0,0 +1,168 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.model.OrderFieldKeys;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * How the order entry table of one folder version reads its columns out of
+ * an entry's fields map, compiled once (see {@link ColumnPlanCache}): the
+ * canonical key of every order detail column plus the customer, company
+ * and planning status columns. Entries are stored under canonical keys
+ * (see OrderEntry#canonicalize), so applying the plan to a row is one map
+ * lookup per column.
+ */
+public final class ColumnPlan {
+
+    private static final int[] NO_COLUMNS = new int[0];
+
+    private final String folderId;
+    private final Long version;
+    private final List<String> orderDetails;
+    private final String[] columnKeys; // order details, then CUSTOMER, COMPANY, PLANNING_STATUS
+    private final Map<String, int[]> columnsByKey;
+    private final Set<String> fieldKeys;
+
+    private ColumnPlan(String folderId, Long version, List<String> orderDetails, String[] columnKeys,
+            Map<String, int[]> columnsByKey, Set<String> fieldKeys) {
+        this.folderId = folderId;
+        this.version = version;
+        this.orderDetails = orderDetails;
+        this.columnKeys = columnKeys;
+        this.columnsByKey = columnsByKey;
+        this.fieldKeys = fieldKeys;
+    }
+
+    static ColumnPlan compile(O2DConfig config) {
+        List<String> details = config.getOrderDetails() != null
+                ? List.copyOf(config.getOrderDetails().stream().map(d -> d == null ? "" : d).toList())
+                : List.of();
+        String[] columnKeys = new String[details.size() + 3];
+        for (int i = 0; i < details.size(); i++) {
+            columnKeys[i] = OrderFieldKeys.normalize(details.get(i));
+        }
+        columnKeys[details.size()] = OrderFieldKeys.CUSTOMER_NAME;
+        columnKeys[details.size() + 1] = OrderFieldKeys.COMPANY_NAME;
+        columnKeys[details.size() + 2] = OrderFieldKeys.PLANNING_STATUS;
+
+        Map<String, List<Integer>> columns = new HashMap<>();
+        for (int i = 0; i < columnKeys.length; i++) {
+            columns.computeIfAbsent(columnKeys[i], k -> new ArrayList<>()).add(i);
+        }
+        Map<String, int[]> columnsByKey = new HashMap<>();
+        columns.forEach((key, indexes) -> columnsByKey.put(key,
+                indexes.stream().mapToInt(Integer::intValue).toArray()));
+
+        // Keys the page reads: every detail column, plus the fixed keys
+        Set<String> fieldKeys = new LinkedHashSet<>(List.of(OrderFieldKeys.CUSTOMER_NAME,
+                OrderFieldKeys.COMPANY_NAME, OrderFieldKeys.PLANNING_STATUS, "starting_date_mandatory"));
+        for (String key : columnKeys) {
+            if (!key.isEmpty()) {
+                fieldKeys.add(key);
+            }
+        }
+
+        return new ColumnPlan(config.getId(), config.getVersion(), details, columnKeys, columnsByKey,
+                Collections.unmodifiableSet(fieldKeys));
+    }
+    // Compiled from this folder version (and these columns)
+    boolean isFor(O2DConfig config) {
+        List<String> details = config.getOrderDetails() != null ? config.getOrderDetails() : List.of();
+        return Objects.equals(version, config.getVersion()) && folderId.equals(config.getId()) && sameDetails(details);
+    }
+
+    private boolean sameDetails(List<String> details) {
+        if (details.size() != orderDetails.size()) {
+            return false;
+        }
+        for (int i = 0; i < details.size(); i++) {
+            String detail = details.get(i) == null ? "" : details.get(i);
+            if (!detail.equals(orderDetails.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Keys of the fields map to fetch for the grid (LatestOrderEntryRepository.findGridPage)
+    public Set<String> fieldKeys() {
+        return fieldKeys;
+    }
+
+    // Order detail columns, in table order
+    public List<String> orderDetails() {
+        return orderDetails;
+    }
+
+    // Order detail column a label (e.g. an import file header) names; -1 when none
+    public int detailColumnOf(String label) {
+        for (int column : columnsByKey.getOrDefault(OrderFieldKeys.normalize(label), NO_COLUMNS)) {
+            if (column < orderDetails.size()) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    // Canonical key of an order detail column
+    public String detailKey(int column) {
+        return columnKeys[column];
+    }
+
+    public Row apply(Map<String, String> fields) {
+        String[] values = new String[columnKeys.length];
+        if (fields != null && !fields.isEmpty()) {
+            for (int i = 0; i < columnKeys.length; i++) {
+                values[i] = fields.get(columnKeys[i]);
+            }
+        }
+        return new Row(values, orderDetails.size());
+    }
+
+    /** One entry's values, in column order. */
+    public static final class Row {
+
+        private final String[] values;
+        private final int detailCount;
+
+        private Row(String[] values, int detailCount) {
+            this.values = values;
+            this.detailCount = detailCount;
+        }
+
+        // Order detail columns; "" when missing
+        public List<String> detailValues() {
+            List<String> details = new ArrayList<>(detailCount);
+            for (int i = 0; i < detailCount; i++) {
+                details.add(values[i] == null ? "" : values[i]);
+            }
+            return details;
+        }
+
+        // "-" when missing or blank, like the other name lookups
+        public String customerName() {
+            return named(detailCount);
+        }
+
+        public String companyName() {
+            return named(detailCount + 1);
+        }
+
+        public String planningStatus() {
+            return named(detailCount + 2);
+        }
+
+        private String named(int column) {
+            String value = values[column];
+            return value == null || value.isBlank() ? "-" : value;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.O2DConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * One compiled {@link ColumnPlan} per FMS folder. A plan belongs to the
+ * folder version it was compiled from; a config read with another version
+ * (or other columns) compiles a new one, so no invalidation is needed.
+ */
+@Component
+public class ColumnPlanCache {
+
+    private final Cache<String, ColumnPlan> plans;
+
+    public ColumnPlanCache(@Value("${column-plan.cache.max-size:500}") long maxSize) {
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public ColumnPlan plan(O2DConfig config) {
+        ColumnPlan plan = plans.getIfPresent(config.getId());
+        if (plan != null && plan.isFor(config)) {
+            return plan;
+        }
+        return plans.asMap().compute(config.getId(),
+                (key, current) -> current != null && current.isFor(config) ? current : ColumnPlan.compile(config));
+    }
+}
@@ -0,0 +1,88 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.InboxItem;
+import com.company.flowmanagement.model.Project;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-capped cache of the dashboard data. Stats are per user: keyed
+ * by inbox owner key and evicted by {@link InboxProjectionService} whenever
+ * a write changes a row that user can see; the TTL only bounds staleness of
+ * writes that bypass the projection. Concurrent misses for the same user
+ * share a single load, so a shift-start login burst costs one query per
+ * user. The client / project map is the same for everyone and held once;
+ * task writes do not touch projects, and the application never writes
+ * them, so only the TTL refreshes it.
+ */
+@Component
+public class DashboardCache {
+
+    private final Cache<String, Map<String, Object>> stats;
+    private static final String ALL_PROJECTS = "all";
+
+    private final Cache<String, Map<String, List<Project>>> clientProjects;
+    private final LongAdder writeEvictions = new LongAdder(); // owners invalidated by writes
+
+    public DashboardCache(@Value("${dashboard.cache.max-size:10000}") long maxSize,
+            @Value("${dashboard.cache.ttl:10m}") Duration ttl) {
+        this.stats = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.clientProjects = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Map<String, Object> stats(String username, Supplier<Map<String, Object>> loader) {
+        return stats.get(InboxItem.ownerKeyOf(username), key -> loader.get());
+    }
+
+    public Map<String, List<Project>> clientProjects(Supplier<Map<String, List<Project>>> loader) {
+        return clientProjects.get(ALL_PROJECTS, key -> loader.get());
+    }
+
+    // Drop the cached dashboard of every owner whose inbox just changed
+    public void evictOwners(Collection<String> ownerKeys) {
+        if (ownerKeys == null || ownerKeys.isEmpty()) {
+            return;
+        }
+        stats.invalidateAll(ownerKeys);
+        writeEvictions.add(ownerKeys.size());
+    }
+
+    public Map<String, Object> statistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dashboardStats", describe(stats.stats(), stats.estimatedSize()));
+        result.put("clientProjectMap", describe(clientProjects.stats(), clientProjects.estimatedSize()));
+        result.put("writeEvictions", writeEvictions.sum());
+        return result;
+    }
+
+    private static Map<String, Object> describe(CacheStats cacheStats, long size) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", size);
+        map.put("hits", cacheStats.hitCount());
+        map.put("misses", cacheStats.missCount());
+        map.put("hitRate", cacheStats.hitRate());
+        map.put("evictions", cacheStats.evictionCount()); // size / TTL evictions
+        map.put("loadFailures", cacheStats.loadFailureCount());
+        map.put("averageLoadMillis", cacheStats.averageLoadPenalty() / 1_000_000.0);
+        return map;
+    }
+}
@@ -131,6 +131,14 @@ public class EmployeeService {
         return context;
     }
 
+    // Single-permission check for section endpoints (no folder list or admin lookup)
+    public boolean hasPermission(String username, String permission) {
+        return employeeRepository.findByName(username)
+                .map(employee -> employee.getPermissions() != null
+                        && employee.getPermissions().contains(permission))
+                .orElse(false);
+    }
+
     public java.util.List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
@@ -0,0 +1,263 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.EpochDays;
+import com.company.flowmanagement.model.InboxItem;
+import com.company.flowmanagement.model.LatestOrderEntry;
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.model.PlanningEntry;
+import com.company.flowmanagement.model.ProcessStep;
+import com.company.flowmanagement.model.Task;
+import com.company.flowmanagement.repository.InboxItemRepository;
+import com.company.flowmanagement.repository.LatestOrderEntryRepository;
+import com.company.flowmanagement.repository.PlanningEntryRepository;
+import com.company.flowmanagement.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Exports of a folder's orders and planning schedule and of a user's tasks,
+ * all of them or those of one client organization, as CSV or NDJSON. Rows
+ * are read through a MongoDB cursor of {@code export.batch-size} documents
+ * and written to the output as they arrive, so an export holds one batch
+ * whatever its row count.
+ */
+@Service
+public class ExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final List<String> TASK_COLUMNS = List.of("Task ID", "Title", "Project", "Client",
+            "Assigned To", "Assigned By", "Target Date", "Completion Date", "Status", "Remarks", "Created At");
+
+    private final LatestOrderEntryRepository latestRepository;
+    private final PlanningEntryRepository planningEntryRepository;
+    private final TaskRepository taskRepository;
+    private final InboxItemRepository inboxItemRepository;
+    private final OrderEntryService orderEntryService;
+    private final ColumnPlanCache columnPlanCache;
+    private final int batchSize;
+
+    public ExportService(LatestOrderEntryRepository latestRepository,
+            PlanningEntryRepository planningEntryRepository, TaskRepository taskRepository,
+            InboxItemRepository inboxItemRepository, OrderEntryService orderEntryService,
+            ColumnPlanCache columnPlanCache, @Value("${export.batch-size:500}") int batchSize) {
+        this.latestRepository = latestRepository;
+        this.planningEntryRepository = planningEntryRepository;
+        this.taskRepository = taskRepository;
+        this.inboxItemRepository = inboxItemRepository;
+        this.orderEntryService = orderEntryService;
+        this.columnPlanCache = columnPlanCache;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * The export format named by a request parameter: {@code csv} (also when
+     * blank) or {@code ndjson}.
+     *
+     * @throws IllegalArgumentException for any other format
+     */
+    public static String format(String value) {
+        String format = value == null || value.isBlank() ? FORMAT_CSV : value.trim().toLowerCase(Locale.ROOT);
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unknown export format: " + value);
+        }
+        return format;
+    }
+
+    public static String contentType(String format) {
+        return FORMAT_NDJSON.equals(format) ? "application/x-ndjson" : "text/csv;charset=UTF-8";
+    }
+
+    // Download name: the name given, reduced to safe characters, dated today
+    public static String fileName(String name, String format) {
+        String safe = name == null ? "" : name.trim().replaceAll("[^A-Za-z0-9._-]+", "-");
+        return (safe.isEmpty() ? "export" : safe) + "-" + LocalDate.now() + "." + format;
+    }
+
+    /**
+     * The latest version of every order of a folder, newest first: order id,
+     * the folder's order detail columns (resolved like the grid), customer,
+     * company, planning status and when the version was saved.
+     *
+     * @return rows written
+     */
+    public long writeOrders(O2DConfig config, String format, OutputStream out) throws IOException {
+        ColumnPlan plan = columnPlanCache.plan(config);
+        List<String> columns = new ArrayList<>();
+        columns.add("Order ID");
+        columns.addAll(plan.orderDetails());
+        columns.addAll(List.of("Customer Name", "Company Name", "Planning Status", "Created At"));
+
+        ExportWriter writer = ExportWriter.open(format, out, columns);
+        long rows = 0;
+        try (Stream<LatestOrderEntry> orders = latestRepository.streamFolder(config.getId(), plan.fieldKeys(),
+                batchSize)) {
+            Iterator<LatestOrderEntry> it = orders.iterator();
+            while (it.hasNext()) {
+                LatestOrderEntry latest = it.next();
+                List<String> values = new ArrayList<>(columns.size());
+                values.add(latest.getOrderId());
+                values.addAll(plan.apply(latest.getFields()).detailValues());
+                values.add(latest.getCustomerName());
+                values.add(latest.getCompanyName());
+                values.add(latest.getPlanningStatus());
+                values.add(instant(latest.getCreatedAt()));
+                writer.row(values);
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * The planning schedule of a folder in planning order: one row per
+     * planned order and process step, with the step's target date (start
+     * date plus the step's days). An order whose start date is not a date
+     * gets one row without steps. Customer and company come from the latest
+     * version of each order, looked up once per batch.
+     *
+     * @return rows written
+     */
+    public long writePlanning(O2DConfig config, String format, OutputStream out) throws IOException {
+        ExportWriter writer = ExportWriter.open(format, out, List.of("Order ID", "Start Date", "Customer Name",
+                "Company Name", "Sr", "Step", "Responsible Person", "Target Type", "Days", "Target Date"));
+        List<ProcessStep> steps = config.getProcessDetails();
+        long rows = 0;
+        try (Stream<PlanningEntry> entries = planningEntryRepository.streamFolder(config.getId(), batchSize)) {
+            List<PlanningEntry> batch = new ArrayList<>(batchSize);
+            Iterator<PlanningEntry> it = entries.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == batchSize || !it.hasNext()) {
+                    rows += writePlanningBatch(config.getId(), steps, batch, writer);
+                    batch.clear();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writePlanningBatch(String folderId, List<ProcessStep> steps, List<PlanningEntry> batch,
+            ExportWriter writer) throws IOException {
+        Set<String> orderIds = new LinkedHashSet<>();
+        for (PlanningEntry entry : batch) {
+            if (entry.getOrderId() != null && !entry.getOrderId().isBlank()) {
+                orderIds.add(entry.getOrderId().trim());
+            }
+        }
+        Map<String, LatestOrderEntry> latestByOrderId = orderEntryService.latestByOrderId(folderId, orderIds);
+
+        long rows = 0;
+        for (PlanningEntry entry : batch) {
+            LatestOrderEntry latest = entry.getOrderId() != null
+                    ? latestByOrderId.get(entry.getOrderId().trim())
+                    : null;
+            List<String> order = List.of(nullToEmpty(entry.getOrderId()), nullToEmpty(entry.getStartDate()),
+                    latest != null ? nullToEmpty(latest.getCustomerName()) : "-",
+                    latest != null ? nullToEmpty(latest.getCompanyName()) : "-");
+            Integer startDay = entry.getStartDay();
+            if (startDay == null || steps.isEmpty()) {
+                writer.row(order);
+                rows++;
+                continue;
+            }
+            int sr = 1;
+            for (ProcessStep step : steps) {
+                List<String> values = new ArrayList<>(order);
+                values.add(String.valueOf(sr++));
+                values.add(step.getStepProcess());
+                values.add(step.getResponsiblePerson());
+                values.add(step.getTargetType());
+                values.add(step.getDays() == null ? "" : String.valueOf(step.getDays()));
+                values.add(EpochDays.format(step.getDays() != null ? startDay + step.getDays() : null));
+                writer.row(values);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * A user's task list: the tasks and FMS steps assigned to them, then the
+     * ones they delegated, each newest first.
+     *
+     * @return rows written
+     */
+    public long writeUserTasks(String username, String format, OutputStream out) throws IOException {
+        List<String> columns = new ArrayList<>();
+        columns.add("Type");
+        columns.add("Source");
+        columns.addAll(TASK_COLUMNS);
+        ExportWriter writer = ExportWriter.open(format, out, columns);
+        String ownerKey = InboxItem.ownerKeyOf(username);
+        long rows = 0;
+        for (String kind : List.of(InboxItem.KIND_ASSIGNED, InboxItem.KIND_DELEGATED)) {
+            try (Stream<InboxItem> items = inboxItemRepository.streamOwned(ownerKey, kind, batchSize)) {
+                Iterator<InboxItem> it = items.iterator();
+                while (it.hasNext()) {
+                    InboxItem item = it.next();
+                    writer.row(List.of(kind, nullToEmpty(item.getSource()), nullToEmpty(item.getTaskId()),
+                            nullToEmpty(item.getTitle()), nullToEmpty(item.getProjectName()),
+                            nullToEmpty(item.getClientName()), nullToEmpty(item.getAssignedToName()),
+                            nullToEmpty(item.getAssignedByName()), nullToEmpty(item.getTargetDate()),
+                            nullToEmpty(item.getCompletionDate()), nullToEmpty(item.getStatus()),
+                            nullToEmpty(item.getRemarks()), instant(item.getCreatedAt())));
+                    rows++;
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * The tasks of a client organization that a user assigned or was
+     * assigned, newest first.
+     *
+     * @return rows written
+     */
+    public long writeClientTasks(String clientOrgId, String userId, String format, OutputStream out)
+            throws IOException {
+        ExportWriter writer = ExportWriter.open(format, out, TASK_COLUMNS);
+        long rows = 0;
+        try (Stream<Task> tasks = taskRepository.streamByClientOrgIdForUser(clientOrgId, userId, batchSize)) {
+            Iterator<Task> it = tasks.iterator();
+            while (it.hasNext()) {
+                Task task = it.next();
+                writer.row(List.of(nullToEmpty(task.getTaskId()), nullToEmpty(task.getTitle()),
+                        nullToEmpty(task.getProjectName()), nullToEmpty(task.getClientName()),
+                        nullToEmpty(task.getAssignedToName()), nullToEmpty(task.getAssignedByName()),
+                        nullToEmpty(task.getTargetDate()), nullToEmpty(task.getCompletionDate()),
+                        nullToEmpty(task.getStatus()), nullToEmpty(task.getRemarks()),
+                        instant(task.getCreatedAt())));
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static String instant(Instant value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.CsvWriter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Rows of an export (see {@link ExportService}) in one format, written
+ * through a small buffer to the output as they come. CSV starts with a
+ * byte-order mark (spreadsheets read it as UTF-8) and a header record;
+ * NDJSON is one object per line, keyed by the column names. The output is
+ * flushed, never closed.
+ */
+abstract class ExportWriter implements Flushable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    final List<String> columns;
+
+    private ExportWriter(List<String> columns) {
+        this.columns = List.copyOf(columns);
+    }
+
+    static ExportWriter open(String format, OutputStream out, List<String> columns) throws IOException {
+        return ExportService.FORMAT_NDJSON.equals(format) ? new Ndjson(out, columns) : new Csv(out, columns);
+    }
+
+    // One value per column, in column order; null for none
+    abstract void row(List<String> values) throws IOException;
+
+    private static final class Csv extends ExportWriter {
+
+        private final CsvWriter csv;
+
+        Csv(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write('\uFEFF');
+            csv = new CsvWriter(writer);
+            csv.write(this.columns);
+        }
+
+        @Override
+        void row(List<String> values) throws IOException {
+            csv.write(values);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            csv.flush();
+        }
+    }
+
+    private static final class Ndjson extends ExportWriter {
+
+        private final JsonGenerator json;
+
+        Ndjson(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            json = JSON.createGenerator(out, JsonEncoding.UTF8);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void row(List<String> values) throws IOException {
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                json.writeStringField(columns.get(i), i < values.size() ? values.get(i) : null);
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+    }
+}
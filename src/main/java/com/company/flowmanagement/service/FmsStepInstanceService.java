@@ -0,0 +1,304 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.EpochDays;
+import com.company.flowmanagement.model.FmsStepInstance;
+import com.company.flowmanagement.model.LatestOrderEntry;
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.model.OrderEntry;
+import com.company.flowmanagement.model.PlanningEntry;
+import com.company.flowmanagement.model.ProcessStep;
+import com.company.flowmanagement.repository.FmsStepInstanceRepository;
+import com.company.flowmanagement.repository.O2DConfigRepository;
+import com.company.flowmanagement.repository.PlanningEntryRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per-order FMS step instances (one document per folder, order
+ * and step index). Instances are (re)built from the folder's process template
+ * whenever an order is planned or the template changes; progress fields
+ * (status, remarks, completion) survive a rebuild.
+ */
+@Service
+public class FmsStepInstanceService {
+
+    private final FmsStepInstanceRepository instanceRepository;
+    private final O2DConfigRepository o2dConfigRepository;
+    private final PlanningEntryRepository planningEntryRepository;
+    private final OrderEntryService orderEntryService;
+    private final InboxProjectionService inboxProjectionService;
+
+    public FmsStepInstanceService(FmsStepInstanceRepository instanceRepository,
+            O2DConfigRepository o2dConfigRepository,
+            PlanningEntryRepository planningEntryRepository,
+            OrderEntryService orderEntryService,
+            InboxProjectionService inboxProjectionService) {
+        this.instanceRepository = instanceRepository;
+        this.o2dConfigRepository = o2dConfigRepository;
+        this.planningEntryRepository = planningEntryRepository;
+        this.orderEntryService = orderEntryService;
+        this.inboxProjectionService = inboxProjectionService;
+    }
+
+    /**
+     * Build (or re-plan) the step instances of one order after a planning entry
+     * was submitted.
+     */
+    public List<FmsStepInstance> syncOrder(PlanningEntry plan) {
+        if (plan == null || plan.getFolderId() == null) {
+            return List.of();
+        }
+        O2DConfig config = o2dConfigRepository.findById(plan.getFolderId()).orElse(null);
+        if (config == null) {
+            return List.of();
+        }
+        List<FmsStepInstance> existing = instanceRepository.findByFolderIdAndOrderId(config.getId(),
+                plan.getOrderId());
+        List<FmsStepInstance> removed = new ArrayList<>();
+        List<FmsStepInstance> synced = applyTemplate(config, plan,
+                orderEntryService.latest(config.getId(), plan.getOrderId()), existing, removed);
+        return persist(synced, removed);
+    }
+
+    /**
+     * Re-apply the folder's process template to every planned order of the
+     * folder, e.g. after steps were added, removed or reassigned.
+     */
+    public List<FmsStepInstance> syncFolder(String folderId) {
+        if (folderId == null || folderId.isBlank()) {
+            return List.of();
+        }
+        O2DConfig config = o2dConfigRepository.findById(folderId).orElse(null);
+        if (config == null) {
+            deleteFolder(folderId);
+            return List.of();
+        }
+
+        // Latest planning entry per order wins (entries come oldest first)
+        Map<String, PlanningEntry> latestPlans = new LinkedHashMap<>();
+        for (PlanningEntry plan : planningEntryRepository.findByFolderIdOrderByCreatedAtAsc(folderId)) {
+            if (plan.getOrderId() != null && !plan.getOrderId().isBlank()) {
+                latestPlans.put(plan.getOrderId(), plan);
+            }
+        }
+
+        Map<String, List<FmsStepInstance>> existingByOrder = new HashMap<>();
+        for (FmsStepInstance instance : instanceRepository.findByFolderId(folderId)) {
+            existingByOrder.computeIfAbsent(instance.getOrderId(), k -> new ArrayList<>()).add(instance);
+        }
+
+        // Customer / company names of every planned order in one lookup
+        Map<String, LatestOrderEntry> latestOrders = orderEntryService.latestByOrderId(folderId,
+                latestPlans.keySet());
+
+        List<FmsStepInstance> synced = new ArrayList<>();
+        List<FmsStepInstance> removed = new ArrayList<>();
+        for (PlanningEntry plan : latestPlans.values()) {
+            synced.addAll(applyTemplate(config, plan, latestOrders.get(plan.getOrderId()),
+                    existingByOrder.getOrDefault(plan.getOrderId(), List.of()), removed));
+        }
+
+        // Orders that lost their planning entry no longer have live steps
+        existingByOrder.forEach((orderId, instances) -> {
+            if (!latestPlans.containsKey(orderId)) {
+                removed.addAll(instances);
+            }
+        });
+        return persist(synced, removed);
+    }
+
+    /**
+     * Rebuild instances for every folder when the collection is still empty,
+     * so orders planned before step instances existed show up as tasks.
+     */
+    public void backfillIfEmpty() {
+        if (instanceRepository.count() > 0) {
+            return;
+        }
+        for (O2DConfig config : o2dConfigRepository.findAll()) {
+            syncFolder(config.getId());
+        }
+    }
+
+    /**
+     * Copy customer / company names from a freshly saved order entry version
+     * onto the order's step instances.
+     */
+    public void refreshOrderDetails(OrderEntry entry) {
+        if (entry == null || entry.getFolderId() == null || entry.getOrderId() == null) {
+            return;
+        }
+        List<FmsStepInstance> instances = instanceRepository.findByFolderIdAndOrderId(entry.getFolderId(),
+                entry.getOrderId());
+        if (instances.isEmpty()) {
+            return;
+        }
+        for (FmsStepInstance instance : instances) {
+            instance.setCustomerName(entry.getCustomerName());
+            instance.setCompanyName(entry.getCompanyName());
+        }
+        inboxProjectionService.projectStepInstances(instanceRepository.saveAll(instances));
+    }
+
+    // refreshOrderDetails for a batch of new versions of one folder's orders, in one query
+    public void refreshOrderDetails(String folderId, List<OrderEntry> entries) {
+        Map<String, OrderEntry> latestByOrderId = new HashMap<>();
+        for (OrderEntry entry : entries) {
+            if (entry.getOrderId() != null) {
+                latestByOrderId.put(entry.getOrderId(), entry); // the last version of an order wins
+            }
+        }
+        if (folderId == null || latestByOrderId.isEmpty()) {
+            return;
+        }
+        List<FmsStepInstance> instances = instanceRepository.findByFolderIdAndOrderIdIn(folderId,
+                latestByOrderId.keySet());
+        if (instances.isEmpty()) {
+            return;
+        }
+        for (FmsStepInstance instance : instances) {
+            OrderEntry entry = latestByOrderId.get(instance.getOrderId());
+            instance.setCustomerName(entry.getCustomerName());
+            instance.setCompanyName(entry.getCompanyName());
+        }
+        inboxProjectionService.projectStepInstances(instanceRepository.saveAll(instances));
+    }
+
+    public FmsStepInstance updateStatus(String instanceId, String status, String remarks, String completionDate,
+            String completionFile) {
+        FmsStepInstance instance = instanceRepository.findById(instanceId).orElse(null);
+        if (instance == null) {
+            return null;
+        }
+        instance.setStatus(status);
+        instance.setRemarks(remarks);
+        instance.setCompletionDate(completionDate);
+        if (completionFile != null) {
+            instance.setCompletionFile(completionFile);
+        }
+        instance.setUpdatedAt(Instant.now());
+        FmsStepInstance saved = instanceRepository.save(instance);
+        inboxProjectionService.projectStepInstances(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Set the progress of many instances at once: one multi-document update
+     * per folder, then one re-read to project the result. Returns the
+     * instances that exist (unknown IDs are simply absent).
+     */
+    public List<FmsStepInstance> updateStatusAll(Collection<String> instanceIds, String status, String remarks,
+            String completionDate) {
+        // Instance IDs start with the folder ID: <folderId>_<orderId>_<stepIndex>
+        Map<String, List<String>> idsByFolder = new LinkedHashMap<>();
+        for (String id : instanceIds) {
+            int sep = id.indexOf('_');
+            if (sep > 0) {
+                idsByFolder.computeIfAbsent(id.substring(0, sep), k -> new ArrayList<>()).add(id);
+            }
+        }
+        if (idsByFolder.isEmpty()) {
+            return List.of();
+        }
+        Instant now = Instant.now();
+        idsByFolder.forEach((folderId, ids) -> instanceRepository.updateStatusInFolder(folderId, ids, status,
+                remarks, completionDate, now));
+
+        List<String> allIds = new ArrayList<>();
+        idsByFolder.values().forEach(allIds::addAll);
+        List<FmsStepInstance> updated = instanceRepository.findAllById(allIds);
+        inboxProjectionService.projectStepInstances(updated);
+        return updated;
+    }
+
+    public void deleteFolder(String folderId) {
+        if (folderId == null || folderId.isBlank()) {
+            return;
+        }
+        List<String> ids = instanceRepository.findByFolderId(folderId).stream()
+                .map(FmsStepInstance::getId)
+                .toList();
+        instanceRepository.deleteByFolderId(folderId);
+        inboxProjectionService.removeStepInstances(ids);
+    }
+
+    private List<FmsStepInstance> persist(List<FmsStepInstance> synced, List<FmsStepInstance> removed) {
+        if (!removed.isEmpty()) {
+            instanceRepository.deleteAll(removed);
+            inboxProjectionService.removeStepInstances(removed.stream().map(FmsStepInstance::getId).toList());
+        }
+        if (synced.isEmpty()) {
+            return synced;
+        }
+        List<FmsStepInstance> saved = instanceRepository.saveAll(synced);
+        inboxProjectionService.projectStepInstances(saved);
+        return saved;
+    }
+
+    // Apply the folder template to one planned order ({@code order}: its latest
+    // entry, or null); instances of steps that no longer exist are added to
+    // {@code removed}.
+    private List<FmsStepInstance> applyTemplate(O2DConfig config, PlanningEntry plan, LatestOrderEntry order,
+            List<FmsStepInstance> existing, List<FmsStepInstance> removed) {
+        String orderId = plan.getOrderId();
+        if (orderId == null || orderId.isBlank()) {
+            return List.of();
+        }
+
+        Map<Integer, FmsStepInstance> byIndex = new HashMap<>();
+        for (FmsStepInstance instance : existing) {
+            byIndex.put(instance.getStepIndex(), instance);
+        }
+
+        // Null for an unparseable start date: instances are kept, without target dates
+        Integer startDay = plan.getStartDay();
+
+        // Not entered yet: same "-" the order entry page shows
+        String customerName = order != null ? order.getCustomerName() : "-";
+        String companyName = order != null ? order.getCompanyName() : "-";
+
+        List<ProcessStep> steps = config.getProcessDetails() != null ? config.getProcessDetails() : List.of();
+        Instant now = Instant.now();
+        List<FmsStepInstance> toSave = new ArrayList<>();
+        for (int i = 0; i < steps.size(); i++) {
+            ProcessStep step = steps.get(i);
+            FmsStepInstance instance = byIndex.remove(i);
+            if (instance == null) {
+                instance = new FmsStepInstance();
+                instance.setId(FmsStepInstance.buildId(config.getId(), orderId, i));
+                instance.setFolderId(config.getId());
+                instance.setOrderId(orderId);
+                instance.setStepIndex(i);
+            }
+            instance.setFolderName(config.getName());
+            instance.setStepProcess(step.getStepProcess());
+            instance.setResponsiblePerson(step.getResponsiblePerson());
+            instance.setTargetType(step.getTargetType());
+            instance.setDays(step.getDays());
+            instance.setStartDate(plan.getStartDate());
+            instance.setStartDay(startDay);
+            instance.setTargetDay(startDay != null && step.getDays() != null ? startDay + step.getDays() : null);
+            if ("Overdue".equals(instance.getStatus())
+                    && (instance.getDueDay() == null || instance.getDueDay() >= EpochDays.today())) {
+                // Re-planned to a date that has not passed yet
+                instance.setStatus("PENDING");
+            }
+            instance.setCustomerName(customerName);
+            instance.setCompanyName(companyName);
+            instance.setPlannedAt(plan.getCreatedAt() != null ? plan.getCreatedAt() : now);
+            instance.setUpdatedAt(now);
+            toSave.add(instance);
+        }
+
+        // Steps removed from the template
+        removed.addAll(byIndex.values());
+        return toSave;
+    }
+}
@@ -0,0 +1,122 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.FmsStepInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable board of one FMS folder at one folder version: the display row of
+ * every step instance, grouped by assignee. Built once and shared by every
+ * employee who opens the folder until a write to the folder bumps the
+ * version (see {@link FolderBoardCache}).
+ */
+public final class FolderBoard {
+
+    private final long version;
+    private final Map<String, List<Map<String, String>>> stepsByAssignee;
+    private final int size;
+
+    private FolderBoard(long version, Map<String, List<Map<String, String>>> stepsByAssignee, int size) {
+        this.version = version;
+        this.stepsByAssignee = stepsByAssignee;
+        this.size = size;
+    }
+
+    // Instances are expected in board order (plannedAt, stepIndex)
+    static FolderBoard build(long version, List<FmsStepInstance> instances) {
+        Map<String, List<Map<String, String>>> byAssignee = new LinkedHashMap<>();
+        for (FmsStepInstance step : instances) {
+            if (step.getAssigneeKey() == null || step.getAssigneeKey().isBlank()) {
+                continue;
+            }
+            byAssignee.computeIfAbsent(step.getAssigneeKey(), k -> new ArrayList<>()).add(row(step));
+        }
+        byAssignee.replaceAll((key, rows) -> Collections.unmodifiableList(rows));
+        return new FolderBoard(version, Collections.unmodifiableMap(byAssignee), instances.size());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // The user's rows, in board order; the rows themselves are read-only
+    public List<Map<String, String>> stepsFor(String username) {
+        if (username == null || username.isBlank()) {
+            return List.of();
+        }
+        return stepsByAssignee.getOrDefault(FmsStepInstance.assigneeKeyOf(username), List.of());
+    }
+
+    // The user's rows numbered in board order and split into the page's sections
+    public UserView viewFor(String username) {
+        List<Map<String, String>> overdue = new ArrayList<>();
+        List<Map<String, String>> completed = new ArrayList<>();
+        Map<String, List<Map<String, String>>> pendingByStep = new LinkedHashMap<>();
+        int sr = 1;
+        for (Map<String, String> step : stepsFor(username)) {
+            Map<String, String> taskMap = new LinkedHashMap<>();
+            taskMap.put("sr", String.valueOf(sr++));
+            taskMap.putAll(step);
+            String status = step.get("status");
+
+            // Overdue is set by OverdueSweeper
+            if ("Completed".equalsIgnoreCase(status)) {
+                completed.add(taskMap);
+            } else if ("Overdue".equalsIgnoreCase(status)) {
+                overdue.add(taskMap);
+            } else {
+                pendingByStep.computeIfAbsent(step.get("taskName"), k -> new ArrayList<>()).add(taskMap);
+            }
+        }
+        return new UserView(overdue, completed, pendingByStep);
+    }
+
+    private static Map<String, String> row(FmsStepInstance step) {
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("taskId", "FMS_" + step.getId());
+        row.put("orderId", step.getOrderId());
+        row.put("customerName", step.getCustomerName() != null ? step.getCustomerName() : "-");
+        row.put("companyName", step.getCompanyName() != null ? step.getCompanyName() : "-");
+        row.put("responsiblePerson", step.getResponsiblePerson());
+        row.put("taskName", step.getStepProcess());
+        row.put("targetDate", step.getTargetDate() != null ? step.getTargetDate() : "-");
+        String status = step.getStatus();
+        row.put("status", status == null || status.isBlank() ? "Pending" : status);
+        row.put("pdf", step.getCompletionFile() != null ? step.getCompletionFile() : "");
+        return Collections.unmodifiableMap(row);
+    }
+
+    public static final class UserView {
+        private final List<Map<String, String>> overdue;
+        private final List<Map<String, String>> completed;
+        private final Map<String, List<Map<String, String>>> pendingByStep;
+
+        private UserView(List<Map<String, String>> overdue, List<Map<String, String>> completed,
+                Map<String, List<Map<String, String>>> pendingByStep) {
+            this.overdue = overdue;
+            this.completed = completed;
+            this.pendingByStep = pendingByStep;
+        }
+
+        public List<Map<String, String>> getOverdue() {
+            return overdue;
+        }
+
+        public List<Map<String, String>> getCompleted() {
+            return completed;
+        }
+
+        // Open steps by step name (stepProcess)
+        public Map<String, List<Map<String, String>>> getPendingByStep() {
+            return pendingByStep;
+        }
+    }
+}
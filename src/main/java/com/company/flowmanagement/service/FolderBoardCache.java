@@ -0,0 +1,83 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.FmsStepInstance;
+import com.company.flowmanagement.repository.FmsStepInstanceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link FolderBoard} per FMS folder, rebuilt at most once per folder
+ * version. Every write to a folder's step instances (order details, planning,
+ * template changes, progress, the overdue sweep) goes through
+ * {@link InboxProjectionService}, which calls {@link #invalidate} after the
+ * write; config saves invalidate through {@link O2DConfigService}. The TTL
+ * only bounds staleness of writes made outside the application.
+ */
+@Component
+public class FolderBoardCache {
+
+    private final FmsStepInstanceRepository instanceRepository;
+    private final Cache<String, FolderBoard> boards;
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    // Versions restart at 0 with the process; tags must not repeat across restarts
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+
+    public FolderBoardCache(FmsStepInstanceRepository instanceRepository,
+            @Value("${folder-board.cache.max-size:500}") long maxSize,
+            @Value("${folder-board.cache.ttl:10m}") Duration ttl) {
+        this.instanceRepository = instanceRepository;
+        this.boards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public FolderBoard board(String folderId) {
+        FolderBoard board = boards.getIfPresent(folderId);
+        if (board != null && board.version() == currentVersion(folderId)) {
+            return board;
+        }
+        // Atomic per folder: a burst of readers after a write shares one rebuild
+        return boards.asMap().compute(folderId, (key, current) -> {
+            // Read the version before the instances: a write that lands during
+            // the load bumps it, so this board is rebuilt on the next read
+            long version = currentVersion(key);
+            if (current != null && current.version() == version) {
+                return current;
+            }
+            return FolderBoard.build(version,
+                    instanceRepository.findByFolderIdOrderByPlannedAtAscStepIndexAsc(key));
+        });
+    }
+
+    // Call after the write: the next read of these folders builds a new board
+    public void invalidate(Collection<String> folderIds) {
+        for (String folderId : folderIds) {
+            if (folderId == null) {
+                continue;
+            }
+            versions.merge(folderId, 1L, Long::sum);
+            boards.invalidate(folderId);
+        }
+    }
+
+    /**
+     * Entity tag of one user's view of a board: changes with the folder
+     * version, and with every restart since versions are not persisted.
+     */
+    public String tagOf(FolderBoard board, String folderId, String username) {
+        return generation + "-" + Integer.toHexString(folderId.hashCode()) + "-" + board.version() + "-"
+                + Integer.toHexString(FmsStepInstance.assigneeKeyOf(username).hashCode());
+    }
+
+    private long currentVersion(String folderId) {
+        return versions.getOrDefault(folderId, 0L);
+    }
+}
@@ -0,0 +1,264 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.DashboardCounts;
+import com.company.flowmanagement.model.InboxDetailRow;
+import com.company.flowmanagement.model.FmsStepInstance;
+import com.company.flowmanagement.model.InboxItem;
+import com.company.flowmanagement.model.InboxRow;
+import com.company.flowmanagement.model.Task;
+import com.company.flowmanagement.repository.FmsStepInstanceRepository;
+import com.company.flowmanagement.repository.InboxItemRepository;
+import com.company.flowmanagement.repository.TaskRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the per-user inbox read model ({@link InboxItem}) in step with its
+ * sources. Every write to a manual {@link Task} or an
+ * {@link FmsStepInstance} is projected here, so reads never have to merge
+ * the two sources themselves.
+ */
+@Service
+public class InboxProjectionService {
+
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    private final InboxItemRepository inboxItemRepository;
+    private final TaskRepository taskRepository;
+    private final FmsStepInstanceRepository instanceRepository;
+    private final DashboardCache dashboardCache;
+    private final FolderBoardCache folderBoardCache;
+
+    public InboxProjectionService(InboxItemRepository inboxItemRepository, TaskRepository taskRepository,
+            FmsStepInstanceRepository instanceRepository, DashboardCache dashboardCache,
+            FolderBoardCache folderBoardCache) {
+        this.inboxItemRepository = inboxItemRepository;
+        this.taskRepository = taskRepository;
+        this.instanceRepository = instanceRepository;
+        this.dashboardCache = dashboardCache;
+        this.folderBoardCache = folderBoardCache;
+    }
+
+    /**
+     * Project created or updated manual tasks: one ASSIGNED row for the
+     * assignee and one DELEGATED row for the assigner (unless self-assigned).
+     */
+    public void projectTasks(Collection<Task> tasks) {
+        Map<String, InboxItem> desired = new LinkedHashMap<>();
+        Set<String> sourceIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (task == null || task.getId() == null) {
+                continue;
+            }
+            sourceIds.add(task.getId());
+            if (task.getAssignedToId() != null && task.getAssignedToName() != null) {
+                InboxItem item = fromTask(task, task.getAssignedToName(), InboxItem.KIND_ASSIGNED);
+                desired.put(item.getId(), item);
+            }
+            if (task.getAssignedById() != null && task.getAssignedByName() != null
+                    && !task.getAssignedById().equals(task.getAssignedToId())) {
+                InboxItem item = fromTask(task, task.getAssignedByName(), InboxItem.KIND_DELEGATED);
+                desired.put(item.getId(), item);
+            }
+        }
+        replace(InboxItem.SOURCE_TASK, sourceIds, desired);
+    }
+
+    /**
+     * Project created, re-planned, reassigned or updated FMS step instances.
+     */
+    public void projectStepInstances(Collection<FmsStepInstance> instances) {
+        Map<String, InboxItem> desired = new LinkedHashMap<>();
+        Set<String> sourceIds = new HashSet<>();
+        Set<String> folderIds = new HashSet<>();
+        for (FmsStepInstance instance : instances) {
+            if (instance == null || instance.getId() == null) {
+                continue;
+            }
+            sourceIds.add(instance.getId());
+            folderIds.add(instance.getFolderId());
+            if (instance.getAssigneeKey() != null && !instance.getAssigneeKey().isBlank()) {
+                InboxItem item = fromStepInstance(instance);
+                desired.put(item.getId(), item);
+            }
+        }
+        replace(InboxItem.SOURCE_FMS, sourceIds, desired);
+        folderBoardCache.invalidate(folderIds);
+    }
+
+    public void removeStepInstances(Collection<String> instanceIds) {
+        if (instanceIds == null || instanceIds.isEmpty()) {
+            return;
+        }
+        // Instance IDs start with the folder ID: <folderId>_<orderId>_<stepIndex>
+        Set<String> folderIds = new HashSet<>();
+        for (String id : instanceIds) {
+            int sep = id.indexOf('_');
+            if (sep > 0) {
+                folderIds.add(id.substring(0, sep));
+            }
+        }
+        folderBoardCache.invalidate(folderIds);
+        List<InboxItem> rows = inboxItemRepository.findBySourceAndSourceIdIn(InboxItem.SOURCE_FMS, instanceIds);
+        if (rows.isEmpty()) {
+            return;
+        }
+        inboxItemRepository.deleteAll(rows);
+        dashboardCache.evictOwners(ownersOf(rows));
+    }
+
+    public List<InboxRow> findInbox(String username) {
+        if (username == null || username.isBlank()) {
+            return List.of();
+        }
+        return inboxItemRepository.findRowsByOwnerKeyOrderByCreatedAtDesc(InboxItem.ownerKeyOf(username));
+    }
+
+    public List<InboxDetailRow> findPage(String username, String bucket, String status, String targetFrom,
+            String targetTo, Instant afterCreatedAt, String afterId, int limit) {
+        if (username == null || username.isBlank()) {
+            return List.of();
+        }
+        return inboxItemRepository.findBucketPage(InboxItem.ownerKeyOf(username), bucket, status, targetFrom,
+                targetTo, afterCreatedAt, afterId, limit);
+    }
+
+    public DashboardCounts countAssigned(String username) {
+        if (username == null || username.isBlank()) {
+            return new DashboardCounts();
+        }
+        return inboxItemRepository.aggregateDashboardCounts(InboxItem.ownerKeyOf(username));
+    }
+
+    /**
+     * Build the inbox from scratch when it has never been populated (first
+     * start after upgrading).
+     */
+    public void backfillIfEmpty() {
+        if (inboxItemRepository.count() > 0) {
+            return;
+        }
+        Page<Task> taskPage = taskRepository.findAll(PageRequest.of(0, BACKFILL_PAGE_SIZE));
+        while (true) {
+            projectTasks(taskPage.getContent());
+            if (!taskPage.hasNext()) {
+                break;
+            }
+            taskPage = taskRepository.findAll(taskPage.nextPageable());
+        }
+        Page<FmsStepInstance> instancePage = instanceRepository.findAll(PageRequest.of(0, BACKFILL_PAGE_SIZE));
+        while (true) {
+            projectStepInstances(instancePage.getContent());
+            if (!instancePage.hasNext()) {
+                break;
+            }
+            instancePage = instanceRepository.findAll(instancePage.nextPageable());
+        }
+    }
+
+    // Upsert the desired rows of a batch of sources and drop rows that no
+    // longer apply (e.g. the task or step was reassigned to someone else).
+    // A row whose source has no creation time keeps the one it was first
+    // projected with, so its keyset position does not move between pages.
+    // Owners on either side get their cached dashboard evicted.
+    private void replace(String source, Set<String> sourceIds, Map<String, InboxItem> desired) {
+        if (sourceIds.isEmpty()) {
+            return;
+        }
+        List<InboxItem> stale = new ArrayList<>();
+        for (InboxItem existing : inboxItemRepository.findBySourceAndSourceIdIn(source, sourceIds)) {
+            InboxItem item = desired.get(existing.getId());
+            if (item == null) {
+                stale.add(existing);
+            } else if (item.getCreatedAt() == null) {
+                item.setCreatedAt(existing.getCreatedAt());
+            }
+        }
+        Instant now = Instant.now();
+        for (InboxItem item : desired.values()) {
+            if (item.getCreatedAt() == null) {
+                item.setCreatedAt(now);
+            }
+        }
+        if (!stale.isEmpty()) {
+            inboxItemRepository.deleteAll(stale);
+        }
+        if (!desired.isEmpty()) {
+            inboxItemRepository.saveAll(desired.values());
+        }
+        Set<String> owners = ownersOf(desired.values());
+        owners.addAll(ownersOf(stale));
+        dashboardCache.evictOwners(owners);
+    }
+
+    private static Set<String> ownersOf(Collection<InboxItem> items) {
+        Set<String> owners = new HashSet<>();
+        for (InboxItem item : items) {
+            if (item.getOwnerKey() != null) {
+                owners.add(item.getOwnerKey());
+            }
+        }
+        return owners;
+    }
+
+    private static InboxItem fromTask(Task task, String owner, String kind) {
+        InboxItem item = new InboxItem();
+        item.setOwnerKey(InboxItem.ownerKeyOf(owner));
+        item.setKind(kind);
+        item.setSource(InboxItem.SOURCE_TASK);
+        item.setSourceId(task.getId());
+        item.setId(InboxItem.buildId(item.getOwnerKey(), kind, item.getSource(), item.getSourceId()));
+        item.setTaskId(task.getTaskId());
+        item.setTitle(task.getTitle());
+        item.setProjectName(task.getProjectName());
+        item.setClientName(task.getClientName());
+        item.setAssignedToName(task.getAssignedToName());
+        item.setAssignedByName(task.getAssignedByName());
+        item.setTargetDate(task.getTargetDate());
+        item.setCompletionDate(task.getCompletionDate());
+        item.setStatus(task.getStatus());
+        item.setRemarks(task.getRemarks());
+        item.setAssignedFile(task.getAssignedFile());
+        item.setCompletionFile(task.getCompletionFile());
+        item.setCreatedAt(task.getCreatedAt());
+        item.setUpdatedAt(task.getUpdatedAt());
+        return item;
+    }
+
+    private static InboxItem fromStepInstance(FmsStepInstance instance) {
+        InboxItem item = new InboxItem();
+        item.setOwnerKey(instance.getAssigneeKey());
+        item.setKind(InboxItem.KIND_ASSIGNED);
+        item.setSource(InboxItem.SOURCE_FMS);
+        item.setSourceId(instance.getId());
+        item.setId(InboxItem.buildId(item.getOwnerKey(), item.getKind(), item.getSource(), item.getSourceId()));
+        // Composite ID: FMS + FolderID + OrderID + StepIndex
+        item.setTaskId("FMS_" + instance.getId());
+        item.setTitle(instance.getStepProcess() + " (" + instance.getOrderId() + ")");
+        // Default Project Name = Folder Name
+        item.setProjectName(instance.getFolderName());
+        String customerName = instance.getCustomerName();
+        item.setClientName(customerName == null || "-".equals(customerName) ? "Unknown Client" : customerName);
+        item.setAssignedToName(instance.getResponsiblePerson() != null ? instance.getResponsiblePerson().trim()
+                : null);
+        item.setAssignedByName("System"); // FMS Auto-Assign
+        item.setTargetDate(instance.getTargetDate() != null ? instance.getTargetDate() : "-");
+        item.setCompletionDate(instance.getCompletionDate());
+        item.setStatus(instance.getStatus() != null ? instance.getStatus() : "PENDING");
+        item.setRemarks(instance.getRemarks());
+        item.setCompletionFile(instance.getCompletionFile());
+        item.setCreatedAt(instance.getPlannedAt()); // null: kept or stamped once by replace()
+        item.setUpdatedAt(instance.getUpdatedAt());
+        return item;
+    }
+}
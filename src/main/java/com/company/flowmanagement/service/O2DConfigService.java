@@ -0,0 +1,59 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.repository.O2DConfigRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes to {@link O2DConfig} folders. Full-document edits go through
+ * {@link #update}: compare-and-swap on the version, retried on conflict.
+ */
+@Service
+public class O2DConfigService {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final O2DConfigRepository repository;
+    private final FolderBoardCache folderBoardCache;
+
+    public O2DConfigService(O2DConfigRepository repository, FolderBoardCache folderBoardCache) {
+        this.repository = repository;
+        this.folderBoardCache = folderBoardCache;
+    }
+
+    /**
+     * Load the folder, apply {@code changes} and save it if nobody else wrote
+     * it in between; on a conflict the folder is reloaded and the changes are
+     * applied again. Returns null when the folder does not exist.
+     */
+    public O2DConfig update(String folderId, Consumer<O2DConfig> changes) {
+        OptimisticLockingFailureException conflict = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            O2DConfig config = repository.findById(folderId).orElse(null);
+            if (config == null) {
+                return null;
+            }
+            if (config.getVersion() == null) {
+                // Saved before versioning and not stamped yet: it would be inserted, not updated
+                repository.stampMissingVersions();
+                config = repository.findById(folderId).orElse(null);
+                if (config == null || config.getVersion() == null) {
+                    return null;
+                }
+            }
+            changes.accept(config);
+            try {
+                O2DConfig saved = repository.save(config);
+                folderBoardCache.invalidate(List.of(folderId));
+                return saved;
+            } catch (OptimisticLockingFailureException e) {
+                conflict = e;
+            }
+        }
+        throw conflict;
+    }
+}
@@ -0,0 +1,263 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.LatestOrderEntry;
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.model.OrderEntry;
+import com.company.flowmanagement.model.OrderFieldKeys;
+import com.company.flowmanagement.model.OrderSearchTerms;
+import com.company.flowmanagement.repository.LatestOrderEntryRepository;
+import com.company.flowmanagement.repository.OrderEntryRepository;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes to {@link OrderEntry} versions and keeps the
+ * {@link LatestOrderEntry} row of each order in step. Every order entry
+ * write goes through here and stores the fields under canonical keys (see
+ * {@link OrderEntry#canonicalize()}); reads of "the current version of an order" use
+ * {@link #latest} / {@link #latestByOrderId} instead of a sorted query per
+ * order. The order entry grid pages over the latest rows too (see
+ * {@link #getOrderPage}).
+ */
+@Service
+public class OrderEntryService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SEARCH_RESULTS = 50;
+    private static final List<String> GRID_SORTS = List.of("newest", "oldest", "orderId", "orderIdDesc");
+
+    private final OrderEntryRepository orderEntryRepository;
+    private final LatestOrderEntryRepository latestRepository;
+    private final ColumnPlanCache columnPlanCache;
+
+    public OrderEntryService(OrderEntryRepository orderEntryRepository,
+            LatestOrderEntryRepository latestRepository, ColumnPlanCache columnPlanCache) {
+        this.orderEntryRepository = orderEntryRepository;
+        this.latestRepository = latestRepository;
+        this.columnPlanCache = columnPlanCache;
+    }
+
+    // Append a new version of the order, its fields under canonical keys
+    public OrderEntry save(OrderEntry entry) {
+        OrderEntry saved = orderEntryRepository.save(entry.canonicalize());
+        record(saved);
+        return saved;
+    }
+
+    /**
+     * Append new versions in one insert (an import batch) and advance the
+     * latest rows in one bulk write. Several versions of one order in the
+     * batch: the last one becomes the latest, so they should share or
+     * increase their createdAt in list order.
+     */
+    public List<OrderEntry> saveAll(List<OrderEntry> entries) {
+        if (entries.isEmpty()) {
+            return entries;
+        }
+        for (OrderEntry entry : entries) {
+            entry.canonicalize();
+        }
+        List<OrderEntry> saved = orderEntryRepository.insert(entries);
+        Map<String, LatestOrderEntry> latest = new LinkedHashMap<>();
+        for (OrderEntry entry : saved) {
+            if (entry.getFolderId() != null && entry.getOrderId() != null) {
+                LatestOrderEntry row = LatestOrderEntry.of(entry);
+                latest.put(row.getId(), row);
+            }
+        }
+        latestRepository.advanceAll(new ArrayList<>(latest.values()));
+        return saved;
+    }
+
+    // Set one key of an existing version in place; null when the version does not exist
+    public OrderEntry setField(String entryId, String key, String value) {
+        OrderEntry updated = orderEntryRepository.setField(entryId, OrderFieldKeys.normalize(key), value);
+        if (updated != null) {
+            // Only copied when this version is (still) the latest of its order; a version
+            // the key migration has not reached yet is copied canonical all the same
+            record(updated.canonicalize());
+        }
+        return updated;
+    }
+
+    public LatestOrderEntry latest(String folderId, String orderId) {
+        if (folderId == null || orderId == null) {
+            return null;
+        }
+        return latestRepository.findById(LatestOrderEntry.buildId(folderId, orderId)).orElse(null);
+    }
+
+    // Latest version of each of the given orders of a folder, in one query; unknown orders are absent
+    public Map<String, LatestOrderEntry> latestByOrderId(String folderId, Collection<String> orderIds) {
+        Map<String, LatestOrderEntry> byOrderId = new LinkedHashMap<>();
+        if (folderId == null || orderIds.isEmpty()) {
+            return byOrderId;
+        }
+        List<String> ids = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            ids.add(LatestOrderEntry.buildId(folderId, orderId));
+        }
+        for (LatestOrderEntry latest : latestRepository.findAllById(ids)) {
+            byOrderId.put(latest.getOrderId(), latest);
+        }
+        return byOrderId;
+    }
+
+    // Newest order of a folder; null when it has none
+    public LatestOrderEntry newest(String folderId) {
+        return latestRepository.findFirstByFolderIdOrderByCreatedAtDesc(folderId);
+    }
+
+    // Orders of a folder
+    public long countOrders(String folderId) {
+        return latestRepository.countByFolderId(folderId);
+    }
+
+    // Ids of the orders of a folder with one planning status, newest first
+    public List<String> orderIdsWithStatus(String folderId, String status) {
+        List<String> orderIds = new ArrayList<>();
+        for (LatestOrderEntry latest : latestRepository.findOrderIdsByFolderIdAndPlanningStatus(folderId, status)) {
+            if (latest.getOrderId() != null && !latest.getOrderId().isBlank()) {
+                orderIds.add(latest.getOrderId().trim());
+            }
+        }
+        return orderIds;
+    }
+
+    /**
+     * One page of the order entry grid of a folder: the latest version of
+     * each order, with its detail columns resolved through the folder's
+     * column plan. Sort is {@code newest} (default), {@code oldest},
+     * {@code orderId} or {@code orderIdDesc}; the filters are optional. The
+     * first page (no cursor) also carries the number of matching orders.
+     *
+     * @throws IllegalArgumentException for an unknown sort or a cursor this
+     *                                  sort did not issue
+     */
+    public Map<String, Object> getOrderPage(O2DConfig config, String orderId, String customer, String status,
+            String sort, String cursor, int size) {
+        String order = sort == null || sort.isBlank() ? "newest" : sort.trim();
+        if (!GRID_SORTS.contains(order)) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+        boolean byOrderId = order.startsWith("orderId");
+        boolean ascending = "oldest".equals(order) || "orderId".equals(order);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String folderId = config.getId();
+        orderId = blankToNull(orderId);
+        customer = blankToNull(customer);
+        status = blankToNull(status);
+
+        Instant afterCreatedAt = null;
+        String afterKey = null;
+        if (cursor != null && !cursor.isBlank()) {
+            // Cursor: base64url of the last row's order id, or of "<createdAt epoch millis>:<row id>"
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (byOrderId) {
+                    afterKey = decoded;
+                } else {
+                    int sep = decoded.indexOf(':');
+                    afterCreatedAt = Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, sep)));
+                    afterKey = decoded.substring(sep + 1);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        ColumnPlan plan = columnPlanCache.plan(config);
+        // Read one extra row to know whether another page follows
+        List<LatestOrderEntry> rows = latestRepository.findGridPage(folderId, orderId, customer, status,
+                byOrderId, ascending, afterCreatedAt, afterKey, plan.fieldKeys(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<Map<String, Object>> gridRows = new ArrayList<>(rows.size());
+        for (LatestOrderEntry latest : rows) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("entryId", latest.getEntryId());
+            row.put("orderId", latest.getOrderId());
+            row.put("createdAt", latest.getCreatedAt());
+            row.put("values", plan.apply(latest.getFields()).detailValues());
+            row.put("customerName", latest.getCustomerName());
+            row.put("companyName", latest.getCompanyName());
+            row.put("planningStatus", latest.getPlanningStatus());
+            gridRows.add(row);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            LatestOrderEntry last = rows.get(rows.size() - 1);
+            String raw = byOrderId ? last.getOrderId()
+                    : (last.getCreatedAt() != null ? last.getCreatedAt() : Instant.EPOCH).toEpochMilli()
+                            + ":" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("rows", gridRows);
+        page.put("nextCursor", nextCursor);
+        page.put("hasMore", hasMore);
+        if (cursor == null || cursor.isBlank()) {
+            page.put("total", latestRepository.countGrid(folderId, orderId, customer, status));
+        }
+        return page;
+    }
+
+    /**
+     * Orders matching a typeahead query (every word a prefix of a word of the
+     * order id or a field value), across all folders or in one, newest first.
+     * Empty for a query without letters or digits.
+     */
+    public List<LatestOrderEntry> search(String query, String folderId, int limit) {
+        List<String> terms = OrderSearchTerms.query(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return latestRepository.search(terms, blankToNull(folderId), size);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Build the latest rows from the order entries when the collection is
+     * still empty (orders saved before it existed). Rows copied before the
+     * planning status and search terms were stored get them resolved in place.
+     */
+    public void backfillIfEmpty() {
+        if (latestRepository.count() > 0) {
+            long stamped = latestRepository.stampMissingDerivedFields();
+            if (stamped > 0) {
+                System.out.println("OrderEntryService: stamped status and search terms on " + stamped
+                        + " latest order rows");
+            }
+            return;
+        }
+        // advance rather than a plain save: an order written meanwhile keeps its newer version
+        try (Stream<OrderEntry> versions = orderEntryRepository.streamLatestVersions()) {
+            versions.forEach(entry -> record(entry.canonicalize()));
+        }
+    }
+
+    private void record(OrderEntry entry) {
+        if (entry.getFolderId() == null || entry.getOrderId() == null) {
+            return;
+        }
+        latestRepository.advance(LatestOrderEntry.of(entry));
+    }
+}
@@ -0,0 +1,100 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.LatestOrderEntry;
+import com.company.flowmanagement.model.OrderEntry;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites order entry versions and latest order rows saved before field
+ * keys were canonicalized on write (see {@link OrderEntry#canonicalize()}):
+ * fields under their canonical keys, customer / company / planning status
+ * as properties. Runs in batches in _id order while the application takes
+ * writes: a document is only rewritten when its fields are still the ones
+ * read, so a concurrent update is never lost (the document is picked up
+ * again on the next start).
+ */
+@Service
+public class OrderFieldKeyMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Some key of the fields map is not of the form normalize() produces
+    private static final MongoExpression NON_CANONICAL_KEY = MongoExpression.create("{ $anyElementTrue: [ "
+            + "{ $map: { input: { $objectToArray: { $ifNull: ['$fields', {}] } }, "
+            + "in: { $not: [ { $regexMatch: { input: '$$this.k', regex: '^[a-z0-9]+(_[a-z0-9]+)*$' } } ] } } } ] }");
+
+    private final MongoTemplate mongoTemplate;
+
+    public OrderFieldKeyMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void migrate() {
+        long versions = migrate(OrderEntry.class);
+        long latest = migrate(LatestOrderEntry.class);
+        if (versions > 0 || latest > 0) {
+            System.out.println("OrderFieldKeyMigration: canonicalized " + versions + " order entries and "
+                    + latest + " latest order rows");
+        }
+    }
+
+    private long migrate(Class<?> type) {
+        String collection = mongoTemplate.getCollectionName(type);
+        long migrated = 0;
+        Object lastId = null;
+        while (true) {
+            Criteria criteria = new Criteria().orOperator(
+                    Criteria.where("customerName").exists(false),
+                    Criteria.where("companyName").exists(false),
+                    Criteria.where("planningStatus").exists(false),
+                    Criteria.expr(NON_CANONICAL_KEY));
+            if (lastId != null) {
+                criteria = new Criteria().andOperator(Criteria.where("_id").gt(lastId), criteria);
+            }
+            Query query = new Query(criteria).with(Sort.by("_id")).limit(BATCH_SIZE);
+            query.fields().include("_id").include("fields");
+            List<Document> docs = mongoTemplate.find(query, Document.class, collection);
+            if (docs.isEmpty()) {
+                return migrated;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document doc : docs) {
+                Object stored = doc.get("fields");
+                OrderEntry entry = new OrderEntry();
+                entry.setFields(stringFields(stored));
+                entry.canonicalize();
+                bulk.updateOne(new Query(Criteria.where("_id").is(doc.get("_id")).and("fields").is(stored)),
+                        new Update()
+                                .set("fields", entry.getFields())
+                                .set("customerName", entry.getCustomerName())
+                                .set("companyName", entry.getCompanyName())
+                                .set("planningStatus", entry.getPlanningStatus()));
+            }
+            migrated += bulk.execute().getModifiedCount();
+            lastId = docs.get(docs.size() - 1).get("_id");
+            if (docs.size() < BATCH_SIZE) {
+                return migrated;
+            }
+        }
+    }
+
+    private static Map<String, String> stringFields(Object stored) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (stored instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> fields.put(String.valueOf(key), value == null ? null : value.toString()));
+        }
+        return fields;
+    }
+}
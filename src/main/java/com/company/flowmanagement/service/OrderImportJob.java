@@ -0,0 +1,124 @@
+package com.company.flowmanagement.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one order import (see {@link OrderImportService}), updated by
+ * the import thread and read by the progress endpoint.
+ */
+public final class OrderImportJob {
+
+    public static final String STATE_QUEUED = "QUEUED";
+    public static final String STATE_RUNNING = "RUNNING";
+    public static final String STATE_DONE = "DONE";
+    public static final String STATE_FAILED = "FAILED";
+
+    // Rejected rows reported in detail; the rest are only counted
+    static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final String folderId;
+    private final String username;
+    private final String fileName;
+    private final long totalBytes;
+    private final Instant startedAt = Instant.now();
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+    private volatile List<String> unmappedHeaders = List.of();
+    private volatile String state = STATE_QUEUED;
+    private volatile String message;
+    private volatile Instant finishedAt;
+
+    OrderImportJob(String id, String folderId, String username, String fileName, long totalBytes) {
+        this.id = id;
+        this.folderId = folderId;
+        this.username = username;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    void running() {
+        state = STATE_RUNNING;
+    }
+
+    void done() {
+        finishedAt = Instant.now();
+        state = STATE_DONE;
+    }
+
+    void failed(String reason) {
+        message = reason;
+        finishedAt = Instant.now();
+        state = STATE_FAILED;
+    }
+
+    void unmappedHeaders(List<String> headers) {
+        unmappedHeaders = List.copyOf(headers);
+    }
+
+    void progress(long bytes, long rows) {
+        bytesRead.set(bytes);
+        rowsRead.set(rows);
+    }
+
+    void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void reject(long line, String reason) {
+        rejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("line", line);
+                error.put("message", reason);
+                errors.add(error);
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("jobId", id);
+        view.put("folderId", folderId);
+        view.put("fileName", fileName);
+        view.put("state", state);
+        view.put("message", message);
+        long bytes = bytesRead.get();
+        view.put("bytesRead", bytes);
+        view.put("totalBytes", totalBytes);
+        view.put("percent", STATE_DONE.equals(state) ? 100
+                : totalBytes > 0 ? Math.min(99, bytes * 100 / totalBytes) : 0);
+        view.put("rowsRead", rowsRead.get());
+        view.put("imported", imported.get());
+        view.put("rejected", rejected.get());
+        view.put("unmappedHeaders", unmappedHeaders);
+        synchronized (errors) {
+            view.put("errors", new ArrayList<>(errors));
+        }
+        view.put("startedAt", startedAt);
+        view.put("finishedAt", finishedAt);
+        return view;
+    }
+}
@@ -0,0 +1,337 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.CsvReader;
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.model.OrderEntry;
+import com.company.flowmanagement.model.OrderFieldKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of order entries from a CSV file. The upload is spooled to a
+ * temp file and imported in the background; {@link #job} reports progress.
+ *
+ * <p>The file is read one record at a time. The header row is mapped to the
+ * folder's order detail columns through its {@link ColumnPlan} (a header
+ * matches a column when both normalize alike), plus an Order ID column;
+ * values are stored under the keys the order entry form writes. Rows are
+ * validated in parallel one batch at a time, and each batch is written as
+ * one insert of {@link OrderEntry} versions and one bulk advance of the
+ * latest rows (see {@link OrderEntryService#saveAll}). Rejected rows are
+ * counted and the first ones reported with their line number.
+ */
+@Service
+public class OrderImportService {
+
+    private static final Set<String> ORDER_ID_HEADERS = Set.of("order_id", "order_no", "order_number");
+    private static final int MAX_ORDER_ID_LENGTH = 100;
+    private static final int MAX_VALUE_LENGTH = 1_000;
+
+    private final OrderEntryService orderEntryService;
+    private final FmsStepInstanceService fmsStepInstanceService;
+    private final ColumnPlanCache columnPlanCache;
+    private final int batchSize;
+    private final ThreadPoolExecutor importer;
+    private final ForkJoinPool validators;
+    private final Cache<String, OrderImportJob> jobs;
+
+    public OrderImportService(OrderEntryService orderEntryService, FmsStepInstanceService fmsStepInstanceService,
+            ColumnPlanCache columnPlanCache,
+            @Value("${order-import.batch-size:500}") int batchSize,
+            @Value("${order-import.threads:2}") int threads,
+            @Value("${order-import.queue:8}") int queueSize,
+            @Value("${order-import.validation-threads:4}") int validationThreads,
+            @Value("${order-import.job-ttl:1h}") Duration jobTtl) {
+        this.orderEntryService = orderEntryService;
+        this.fmsStepInstanceService = fmsStepInstanceService;
+        this.columnPlanCache = columnPlanCache;
+        this.batchSize = batchSize;
+        AtomicInteger count = new AtomicInteger();
+        this.importer = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), task -> {
+                    Thread thread = new Thread(task, "order-import-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.importer.allowCoreThreadTimeOut(true);
+        this.validators = new ForkJoinPool(validationThreads);
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobTtl)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importer.shutdownNow();
+        validators.shutdownNow();
+    }
+
+    /**
+     * Spool the upload and queue its import into a folder.
+     *
+     * @throws IllegalArgumentException for an empty or non-CSV file
+     * @throws IllegalStateException    when the import queue is full
+     */
+    public OrderImportJob start(O2DConfig config, MultipartFile file, String username) throws IOException {
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.csv";
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".xlsx") || lower.endsWith(".xls")) {
+            throw new IllegalArgumentException("Excel files are not supported: save the sheet as CSV first");
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+
+        Path spool = Files.createTempFile("order-import-", ".csv");
+        try {
+            file.transferTo(spool);
+            OrderImportJob job = new OrderImportJob(UUID.randomUUID().toString(), config.getId(), username,
+                    fileName, Files.size(spool));
+            importer.execute(() -> run(job, config, spool));
+            jobs.put(job.getId(), job);
+            return job;
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(spool);
+            throw new IllegalStateException("Too many imports are running; try again shortly");
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+    }
+
+    // A job of this user; null when unknown, expired or someone else's
+    public OrderImportJob job(String jobId, String username) {
+        OrderImportJob job = jobs.getIfPresent(jobId);
+        return job != null && job.getUsername().equals(username) ? job : null;
+    }
+
+    private void run(OrderImportJob job, O2DConfig config, Path spool) {
+        job.running();
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.READ);
+                CsvReader csv = new CsvReader(new InputStreamReader(Channels.newInputStream(channel),
+                        StandardCharsets.UTF_8))) {
+            List<String> header = csv.next();
+            if (header == null) {
+                job.failed("The file is empty");
+                return;
+            }
+            Columns columns = mapHeader(columnPlanCache.plan(config), header);
+            job.unmappedHeaders(columns.unmapped);
+            if (columns.orderIdColumn < 0) {
+                job.failed("No Order ID column in the header row");
+                return;
+            }
+
+            List<Row> batch = new ArrayList<>(batchSize);
+            Instant lastCreatedAt = Instant.EPOCH;
+            long rows = 0;
+            while (true) {
+                long line = csv.line();
+                List<String> record = csv.next();
+                if (record != null) {
+                    rows++;
+                    batch.add(new Row(line, record));
+                }
+                if (batch.size() == batchSize || (record == null && !batch.isEmpty())) {
+                    // Versions of later batches are newer, so the last row of an order wins
+                    Instant createdAt = Instant.now();
+                    if (!createdAt.isAfter(lastCreatedAt)) {
+                        createdAt = lastCreatedAt.plusMillis(1);
+                    }
+                    lastCreatedAt = createdAt;
+                    importBatch(job, config.getId(), columns, batch, createdAt);
+                    batch = new ArrayList<>(batchSize);
+                    job.progress(channel.position(), rows);
+                }
+                if (record == null) {
+                    break;
+                }
+            }
+            job.progress(channel.position(), rows);
+            job.done();
+        } catch (IOException e) {
+            job.failed("Could not read the file: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed("The import was interrupted");
+        } catch (RuntimeException e) {
+            System.err.println("Order import " + job.getId() + " failed: " + e);
+            job.failed("The import stopped: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                System.err.println("Could not delete import spool " + spool + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void importBatch(OrderImportJob job, String folderId, Columns columns, List<Row> batch,
+            Instant createdAt) throws InterruptedException {
+        List<Validated> results;
+        try {
+            results = validators.submit(() -> batch.parallelStream()
+                    .map(row -> validate(folderId, columns, row, createdAt))
+                    .toList()).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        List<OrderEntry> entries = new ArrayList<>(results.size());
+        for (Validated result : results) {
+            if (result.entry != null) {
+                entries.add(result.entry);
+            } else if (result.error != null) {
+                job.reject(result.line, result.error);
+            }
+        }
+        if (!entries.isEmpty()) {
+            orderEntryService.saveAll(entries);
+            fmsStepInstanceService.refreshOrderDetails(folderId, entries);
+            job.imported(entries.size());
+        }
+    }
+
+    static Columns mapHeader(ColumnPlan plan, List<String> header) {
+        List<String> details = plan.orderDetails();
+        String[] keys = new String[header.size()];
+        String[] labels = new String[header.size()];
+        int orderIdColumn = -1;
+        List<String> unmapped = new ArrayList<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i) == null ? "" : header.get(i).trim();
+            if (orderIdColumn < 0 && ORDER_ID_HEADERS.contains(OrderFieldKeys.normalize(name))) {
+                orderIdColumn = i;
+                continue;
+            }
+            int detail = plan.detailColumnOf(name);
+            if (detail >= 0) {
+                labels[i] = details.get(detail);
+                keys[i] = plan.detailKey(detail);
+            } else if (!name.isEmpty()) {
+                unmapped.add(name);
+            }
+        }
+        // Columns the form marks as mandatory must be in the file to be filled
+        List<String> required = new ArrayList<>();
+        for (String detail : details) {
+            if (OrderFieldKeys.normalize(detail).contains("mandatory")) {
+                required.add(detail);
+            }
+        }
+        return new Columns(orderIdColumn, keys, labels, required, unmapped);
+    }
+
+    static Validated validate(String folderId, Columns columns, Row row, Instant createdAt) {
+        List<String> values = row.values;
+        if (values.stream().allMatch(value -> value == null || value.isBlank())) {
+            return new Validated(row.line, null, null); // blank line: skipped
+        }
+        if (values.size() > columns.keys.length) {
+            return new Validated(row.line, null,
+                    values.size() + " values for " + columns.keys.length + " columns");
+        }
+        String orderId = columns.orderIdColumn < values.size() ? values.get(columns.orderIdColumn).trim() : "";
+        if (orderId.isEmpty()) {
+            return new Validated(row.line, null, "Order ID is missing");
+        }
+        if (orderId.length() > MAX_ORDER_ID_LENGTH) {
+            return new Validated(row.line, null, "Order ID is longer than " + MAX_ORDER_ID_LENGTH + " characters");
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (columns.keys[i] == null) {
+                continue;
+            }
+            String value = values.get(i).trim();
+            if (value.length() > MAX_VALUE_LENGTH) {
+                return new Validated(row.line, null,
+                        columns.labels[i] + " is longer than " + MAX_VALUE_LENGTH + " characters");
+            }
+            fields.put(columns.keys[i], value);
+        }
+        for (String label : columns.required) {
+            String value = fields.get(OrderFieldKeys.normalize(label));
+            if (value == null || value.isEmpty()) {
+                return new Validated(row.line, null, label + " is required");
+            }
+        }
+
+        OrderEntry entry = new OrderEntry();
+        entry.setFolderId(folderId);
+        entry.setOrderId(orderId);
+        entry.setFields(fields);
+        entry.setCreatedAt(createdAt);
+        return new Validated(row.line, entry, null);
+    }
+
+    // Header row mapped to the folder: field key and label per file column (null when ignored)
+    static final class Columns {
+        final int orderIdColumn;
+        final String[] keys;
+        final String[] labels;
+        final List<String> required;
+        final List<String> unmapped;
+
+        Columns(int orderIdColumn, String[] keys, String[] labels, List<String> required, List<String> unmapped) {
+            this.orderIdColumn = orderIdColumn;
+            this.keys = keys;
+            this.labels = labels;
+            this.required = required;
+            this.unmapped = unmapped;
+        }
+    }
+
+    static final class Row {
+        final long line;
+        final List<String> values;
+
+        Row(long line, List<String> values) {
+            this.line = line;
+            this.values = values;
+        }
+    }
+
+    // Either an entry to insert, a rejection, or neither (a blank line)
+    static final class Validated {
+        final long line;
+        final OrderEntry entry;
+        final String error;
+
+        Validated(long line, OrderEntry entry, String error) {
+            this.line = line;
+            this.entry = entry;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.EpochDays;
+import com.company.flowmanagement.model.FmsStepInstance;
+import com.company.flowmanagement.model.PlanningEntry;
+import com.company.flowmanagement.model.Task;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moves open tasks and FMS step instances whose due day has passed to
+ * "Overdue", so pages and dashboards read the status field as stored.
+ * Outcomes a user recorded ("On Time", "Delayed", "Completed") are kept.
+ * Candidates come from the (status, dueDay) index in batches; every batch
+ * is one multi-document update plus one re-read for the inbox projection.
+ */
+@Service
+public class OverdueSweeper {
+
+    // Statuses a task or step can be in before it is done or late; null also
+    // matches documents without a status, which the pages show as pending
+    static final List<String> OPEN_STATUSES = Arrays.asList("In Progress", "PENDING", "Pending", null);
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final InboxProjectionService inboxProjectionService;
+
+    public OverdueSweeper(MongoTemplate mongoTemplate, InboxProjectionService inboxProjectionService) {
+        this.mongoTemplate = mongoTemplate;
+        this.inboxProjectionService = inboxProjectionService;
+    }
+
+    @Scheduled(initialDelayString = "${overdue.sweep.initial-delay:PT1M}",
+            fixedDelayString = "${overdue.sweep.interval:PT15M}")
+    public void sweep() {
+        int today = EpochDays.today();
+        long tasks = sweep(Task.class, today);
+        long steps = sweep(FmsStepInstance.class, today);
+        if (tasks > 0 || steps > 0) {
+            System.out.println("OverdueSweeper: marked " + tasks + " tasks and " + steps + " FMS steps overdue");
+        }
+    }
+
+    private <T> long sweep(Class<T> type, int today) {
+        long marked = 0;
+        while (true) {
+            Query candidates = new Query(overdueCriteria(today)).limit(BATCH_SIZE);
+            candidates.fields().include("_id");
+            List<Object> ids = new ArrayList<>();
+            for (Document doc : mongoTemplate.find(candidates, Document.class,
+                    mongoTemplate.getCollectionName(type))) {
+                ids.add(doc.get("_id"));
+            }
+            if (ids.isEmpty()) {
+                return marked;
+            }
+
+            // Re-check the criteria: a task completed meanwhile stays completed
+            Query batch = new Query(Criteria.where("_id").in(ids).andOperator(overdueCriteria(today)));
+            Update update = new Update().set("status", "Overdue").set("updatedAt", Instant.now());
+            marked += mongoTemplate.updateMulti(batch, update, type).getModifiedCount();
+
+            List<T> updated = mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), type);
+            project(type, updated);
+            if (ids.size() < BATCH_SIZE) {
+                return marked;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void project(Class<T> type, List<T> documents) {
+        if (type == Task.class) {
+            inboxProjectionService.projectTasks((List<Task>) documents);
+        } else {
+            inboxProjectionService.projectStepInstances((List<FmsStepInstance>) documents);
+        }
+    }
+
+    static Criteria overdueCriteria(int today) {
+        return Criteria.where("status").in(OPEN_STATUSES).and("dueDay").lt(today);
+    }
+
+    /**
+     * Fill the epoch-day fields ({@code dueDay}, {@code startDay}) on documents
+     * written before they existed. Walks each collection in _id order and
+     * writes one unordered bulk per batch.
+     */
+    public void backfillEpochDays() {
+        backfillEpochDays(Task.class, "targetDate", "dueDay");
+        backfillEpochDays(FmsStepInstance.class, "targetDate", "dueDay");
+        backfillEpochDays(FmsStepInstance.class, "startDate", "startDay");
+        backfillEpochDays(PlanningEntry.class, "startDate", "startDay");
+    }
+
+    private void backfillEpochDays(Class<?> type, String dateField, String dayField) {
+        String collection = mongoTemplate.getCollectionName(type);
+        Object lastId = null;
+        while (true) {
+            Criteria criteria = Criteria.where(dayField).exists(false).and(dateField).exists(true);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(lastId);
+            }
+            Query query = new Query(criteria).with(Sort.by("_id")).limit(BATCH_SIZE);
+            query.fields().include("_id").include(dateField);
+            List<Document> docs = mongoTemplate.find(query, Document.class, collection);
+            if (docs.isEmpty()) {
+                return;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document doc : docs) {
+                // Unparseable dates get an explicit null so they are not revisited
+                bulk.updateOne(new Query(Criteria.where("_id").is(doc.get("_id"))),
+                        new Update().set(dayField, EpochDays.of(doc.getString(dateField))));
+            }
+            bulk.execute();
+            lastId = docs.get(docs.size() - 1).get("_id");
+            if (docs.size() < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+}
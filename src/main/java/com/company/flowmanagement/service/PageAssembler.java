@@ -0,0 +1,154 @@
+package com.company.flowmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the independent sections of a page model concurrently, so a page
+ * takes about as long as its slowest section instead of the sum of all.
+ *
+ * <pre>
+ * try (PageAssembler.Assembly page = pageAssembler.begin()) {
+ *     var context = page.fork(() -&gt; employeeService.getEmployeeContext(username));
+ *     var employees = page.fork(employeeService::getAllEmployees);
+ *     model.addAllAttributes(context.join());
+ *     model.addAttribute("allEmployees", employees.join());
+ * }
+ * </pre>
+ *
+ * Sections run on a bounded pool with the caller's security context but not
+ * its request attributes: request-scoped beans such as {@link TaskSnapshot}
+ * are not thread-safe, so whatever reads them (the task sections) runs on
+ * the request thread between fork and join. Results are joined on the
+ * request thread, which is the only one that touches the {@code Model}. All sections of a page share one deadline;
+ * when it passes, or a section fails, the unfinished sections are cancelled
+ * (interrupted), as they are when the assembly is closed early, e.g. on a
+ * redirect. A saturated pool runs the section on the caller instead.
+ */
+@Component
+public class PageAssembler {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration deadline;
+
+    public PageAssembler(@Value("${page.assembly.threads:32}") int threads,
+            @Value("${page.assembly.queue:256}") int queueSize,
+            @Value("${page.assembly.deadline:PT5S}") Duration deadline) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), task -> {
+                    Thread thread = new Thread(task, "page-section-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.deadline = deadline;
+    }
+
+    // One page: call on the request thread, fork the sections, join them, close
+    public Assembly begin() {
+        return new Assembly(System.nanoTime() + deadline.toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public final class Assembly implements AutoCloseable {
+
+        private final long deadlineNanos;
+        private final SecurityContext securityContext = SecurityContextHolder.getContext();
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        private Assembly(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Section<T> fork(Callable<T> loader) {
+            Future<T> future = executor.submit(() -> {
+                SecurityContext previousContext = SecurityContextHolder.getContext();
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return loader.call();
+                } finally {
+                    // Restore: with CallerRunsPolicy this may be the request thread itself
+                    SecurityContextHolder.setContext(previousContext);
+                }
+            });
+            futures.add(future);
+            return new Section<>(this, future);
+        }
+
+        // Cancel every section that has not finished yet
+        @Override
+        public void close() {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        private long remainingNanos() {
+            return deadlineNanos - System.nanoTime();
+        }
+    }
+
+    public static final class Section<T> {
+
+        private final Assembly assembly;
+        private final Future<T> future;
+
+        private Section(Assembly assembly, Future<T> future) {
+            this.assembly = assembly;
+            this.future = future;
+        }
+
+        /**
+         * The section's result. Past the page deadline the whole page is
+         * cancelled and answered with 503; a failed section cancels the page
+         * and rethrows its exception.
+         */
+        public T join() {
+            try {
+                return future.get(Math.max(0, assembly.remainingNanos()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                assembly.close();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Page assembly timed out", e);
+            } catch (InterruptedException e) {
+                assembly.close();
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Page assembly interrupted", e);
+            } catch (CancellationException e) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Page assembly cancelled", e);
+            } catch (ExecutionException e) {
+                assembly.close();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Page section failed", cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.EpochDays;
+import com.company.flowmanagement.model.Task;
+import com.company.flowmanagement.repository.TaskRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Expands repeatable tasks (isRepeatable with repeatFrequency, repeatDay,
+ * repeatWeek and repeatEndDate) into concrete task occurrences up to a
+ * rolling horizon.
+ *
+ * <p>All rules are merged through one priority queue ordered by the next
+ * occurrence date, so occurrences are written earliest first in batched
+ * inserts. Each rule remembers the last day it was expanded through
+ * ({@code materializedThrough}); together with the unique
+ * (recurrenceOf, occurrenceDay) index this makes a run idempotent, also when
+ * it is interrupted and repeated after a restart.
+ */
+@Service
+public class RecurrenceEngine {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final SequenceGenerator sequenceGenerator;
+    private final InboxProjectionService inboxProjectionService;
+    private final int horizonDays;
+
+    public RecurrenceEngine(TaskRepository taskRepository, SequenceGenerator sequenceGenerator,
+            InboxProjectionService inboxProjectionService,
+            @Value("${recurrence.horizon-days:30}") int horizonDays) {
+        this.taskRepository = taskRepository;
+        this.sequenceGenerator = sequenceGenerator;
+        this.inboxProjectionService = inboxProjectionService;
+        this.horizonDays = horizonDays;
+    }
+
+    @Scheduled(initialDelayString = "${recurrence.initial-delay:PT2M}",
+            fixedDelayString = "${recurrence.interval:PT6H}")
+    public void materializeAll() {
+        int created = materialize(taskRepository.findRecurrenceRules());
+        if (created > 0) {
+            System.out.println("RecurrenceEngine: materialized " + created + " recurring task occurrences");
+        }
+    }
+
+    /**
+     * Materialize the occurrences of the given rules up to the horizon.
+     * Non-repeatable tasks are ignored. Returns the number of tasks created.
+     */
+    public int materialize(Collection<Task> rules) {
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = today.plusDays(horizonDays);
+
+        // Next pending occurrence of every rule, earliest first
+        PriorityQueue<Occurrence> queue = new PriorityQueue<>(Comparator.comparing((Occurrence o) -> o.date)
+                .thenComparing(o -> o.rule.getId()));
+        Map<String, LocalDate> lastDayByRule = new HashMap<>();
+        for (Task rule : rules) {
+            if (rule == null || rule.getId() == null || !Boolean.TRUE.equals(rule.getIsRepeatable())) {
+                continue;
+            }
+            LocalDate last = lastDay(rule, horizon);
+            LocalDate first = firstCandidate(rule, today);
+            if (last.isBefore(first)) {
+                continue;
+            }
+            lastDayByRule.put(rule.getId(), last);
+            LocalDate next = nextOccurrence(rule, first);
+            if (next != null && !next.isAfter(last)) {
+                queue.add(new Occurrence(rule, next));
+            }
+        }
+
+        int created = 0;
+        List<Occurrence> batch = new ArrayList<>(BATCH_SIZE);
+        while (!queue.isEmpty()) {
+            Occurrence occurrence = queue.poll();
+            batch.add(occurrence);
+            if (batch.size() == BATCH_SIZE) {
+                created += insert(batch);
+                batch.clear();
+            }
+            LocalDate next = nextOccurrence(occurrence.rule, occurrence.date.plusDays(1));
+            if (next != null && !next.isAfter(lastDayByRule.get(occurrence.rule.getId()))) {
+                queue.add(new Occurrence(occurrence.rule, next));
+            }
+        }
+        created += insert(batch);
+
+        // Only now that everything up to the last day exists
+        lastDayByRule.forEach((ruleId, last) -> taskRepository.advanceMaterializedThrough(ruleId,
+                (int) last.toEpochDay()));
+        return created;
+    }
+
+    // Insert one batch, skipping occurrences an earlier (interrupted) run already wrote
+    private int insert(List<Occurrence> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<String> ruleIds = new HashSet<>();
+        int fromDay = Integer.MAX_VALUE;
+        int toDay = Integer.MIN_VALUE;
+        for (Occurrence occurrence : batch) {
+            ruleIds.add(occurrence.rule.getId());
+            fromDay = Math.min(fromDay, occurrence.day());
+            toDay = Math.max(toDay, occurrence.day());
+        }
+        Set<String> existing = new HashSet<>();
+        for (Task task : taskRepository.findOccurrences(ruleIds, fromDay, toDay)) {
+            existing.add(task.getRecurrenceOf() + ":" + task.getOccurrenceDay());
+        }
+
+        List<Occurrence> missing = new ArrayList<>();
+        for (Occurrence occurrence : batch) {
+            if (!existing.contains(occurrence.rule.getId() + ":" + occurrence.day())) {
+                missing.add(occurrence);
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        long nextId = sequenceGenerator.nextBlock(TaskService.TASK_SEQUENCE, missing.size());
+        Instant now = Instant.now();
+        List<Task> tasks = new ArrayList<>(missing.size());
+        for (Occurrence occurrence : missing) {
+            Task task = copyOf(occurrence.rule);
+            task.setId(new ObjectId().toHexString());
+            task.setTaskId(TaskService.formatTaskId(nextId++));
+            task.setTargetDate(occurrence.date.toString());
+            task.setRecurrenceOf(occurrence.rule.getId());
+            task.setOccurrenceDay(occurrence.day());
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+
+        // Duplicates from a concurrent run are rejected by the unique index; keep the rest
+        Map<Integer, String> errors = taskRepository.insertUnordered(tasks);
+        List<Task> inserted = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!errors.containsKey(i)) {
+                inserted.add(tasks.get(i));
+            }
+        }
+        inboxProjectionService.projectTasks(inserted);
+        return inserted.size();
+    }
+
+    // First day that may still need an occurrence
+    private static LocalDate firstCandidate(Task rule, LocalDate today) {
+        if (rule.getMaterializedThrough() != null) {
+            return LocalDate.ofEpochDay(rule.getMaterializedThrough() + 1L);
+        }
+        // First run: the rule task itself covers its own target date
+        LocalDate anchor = anchorDate(rule);
+        LocalDate afterAnchor = anchor.plusDays(1);
+        return afterAnchor.isAfter(today) ? afterAnchor : today;
+    }
+
+    private static LocalDate lastDay(Task rule, LocalDate horizon) {
+        Integer end = EpochDays.of(rule.getRepeatEndDate());
+        if (end != null && end < horizon.toEpochDay()) {
+            return LocalDate.ofEpochDay(end);
+        }
+        return horizon;
+    }
+
+    private static LocalDate anchorDate(Task rule) {
+        if (rule.getDueDay() != null) {
+            return LocalDate.ofEpochDay(rule.getDueDay());
+        }
+        Instant created = rule.getCreatedAt() != null ? rule.getCreatedAt() : Instant.now();
+        return created.atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    /**
+     * First date on or after {@code from} that matches the rule, or null when
+     * the frequency is unknown. Weekly rules fall on repeatDay (default: the
+     * weekday of the rule's own target date); monthly rules on the repeatWeek
+     * repeatDay of the month ("First Monday", "Last Friday") or, without
+     * those, on the day of month of the target date.
+     */
+    static LocalDate nextOccurrence(Task rule, LocalDate from) {
+        String frequency = rule.getRepeatFrequency() == null ? ""
+                : rule.getRepeatFrequency().trim().toLowerCase(Locale.ROOT);
+        LocalDate anchor = anchorDate(rule);
+        DayOfWeek day = parseDay(rule.getRepeatDay());
+        switch (frequency) {
+            case "daily":
+                return from;
+            case "weekly":
+                return from.with(TemporalAdjusters.nextOrSame(day != null ? day : anchor.getDayOfWeek()));
+            case "monthly": {
+                Integer week = parseWeek(rule.getRepeatWeek());
+                YearMonth month = YearMonth.from(from);
+                for (int i = 0; i < 2; i++, month = month.plusMonths(1)) {
+                    LocalDate candidate;
+                    if (day != null && week != null) {
+                        candidate = week < 0
+                                ? month.atEndOfMonth().with(TemporalAdjusters.lastInMonth(day))
+                                : month.atDay(1).with(TemporalAdjusters.dayOfWeekInMonth(week, day));
+                    } else {
+                        candidate = month.atDay(Math.min(anchor.getDayOfMonth(), month.lengthOfMonth()));
+                    }
+                    if (!candidate.isBefore(from)) {
+                        return candidate;
+                    }
+                }
+                return null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static DayOfWeek parseDay(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return DayOfWeek.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // 1..4 for First..Fourth, -1 for Last
+    private static Integer parseWeek(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "first":
+                return 1;
+            case "second":
+                return 2;
+            case "third":
+                return 3;
+            case "fourth":
+                return 4;
+            case "last":
+                return -1;
+            default:
+                return null;
+        }
+    }
+
+    private static Task copyOf(Task rule) {
+        Task task = new Task();
+        task.setTitle(rule.getTitle());
+        task.setDescription(rule.getDescription());
+        task.setProjectId(rule.getProjectId());
+        task.setProjectName(rule.getProjectName());
+        task.setClientOrgId(rule.getClientOrgId());
+        task.setClientName(rule.getClientName());
+        task.setAssignedToId(rule.getAssignedToId());
+        task.setAssignedToName(rule.getAssignedToName());
+        task.setAssignedById(rule.getAssignedById());
+        task.setAssignedByName(rule.getAssignedByName());
+        task.setAssignedFile(rule.getAssignedFile());
+        task.setIsInternal(rule.getIsInternal());
+        task.setIsRepeatable(false);
+        return task;
+    }
+
+    private static final class Occurrence {
+        private final Task rule;
+        private final LocalDate date;
+
+        private Occurrence(Task rule, LocalDate date) {
+            this.rule = rule;
+            this.date = date;
+        }
+
+        private int day() {
+            return (int) date.toEpochDay();
+        }
+    }
+}
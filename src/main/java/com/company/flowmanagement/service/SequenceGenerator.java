@@ -0,0 +1,122 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.Counter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hi/lo sequence allocator backed by the {@code counters} collection.
+ * Each instance reserves blocks of values with one atomic findAndModify and
+ * hands them out from memory, so single IDs cost no round trip until the
+ * block runs dry and bulk requests reserve their whole range at once.
+ * Values are unique across instances and restarts; unused values of a
+ * block are skipped, so sequences may have gaps.
+ */
+@Service
+public class SequenceGenerator {
+
+    private final MongoOperations mongoOperations;
+    private final int blockSize;
+    private final Map<String, Holder> holders = new ConcurrentHashMap<>();
+
+    public SequenceGenerator(MongoOperations mongoOperations,
+            @Value("${sequence.block-size:100}") int blockSize) {
+        this.mongoOperations = mongoOperations;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    // Next value of a sequence
+    public long next(String name) {
+        return nextBlock(name, 1);
+    }
+
+    /**
+     * Reserve {@code count} consecutive values and return the first one.
+     * Served from the in-memory block when it has room, otherwise reserved
+     * directly in one round trip.
+     */
+    public long nextBlock(String name, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        Holder holder = holders.computeIfAbsent(name, k -> new Holder());
+        while (true) {
+            Block block = holder.current;
+            if (block != null) {
+                long first = block.cursor.getAndAdd(count);
+                if (first + count - 1 <= block.last) {
+                    return first;
+                }
+            }
+            if (count > blockSize) {
+                // Larger than a block: reserve it on its own, keep the current block
+                return reserve(name, count) - count + 1;
+            }
+            synchronized (holder) {
+                // Only one thread refills; the others retry on the new block
+                if (holder.current == block) {
+                    long last = reserve(name, blockSize);
+                    holder.current = new Block(last - blockSize + 1, last);
+                }
+            }
+        }
+    }
+
+    /**
+     * Make sure the sequence never hands out a value at or below {@code floor}
+     * (e.g. IDs that were issued before the sequence existed).
+     */
+    public void ensureAtLeast(String name, long floor) {
+        Query query = new Query(Criteria.where("_id").is(name));
+        Update update = new Update().max("seq", floor);
+        try {
+            mongoOperations.upsert(query, update, Counter.class);
+        } catch (DuplicateKeyException e) {
+            // Created concurrently: apply the floor to the existing document
+            mongoOperations.upsert(query, update, Counter.class);
+        }
+    }
+
+    // Atomically advance the stored counter and return the new high value
+    private long reserve(String name, int count) {
+        Query query = new Query(Criteria.where("_id").is(name));
+        Update update = new Update().inc("seq", count);
+        FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true).upsert(true);
+        Counter counter;
+        try {
+            counter = mongoOperations.findAndModify(query, update, options, Counter.class);
+        } catch (DuplicateKeyException e) {
+            // Two first-time upserts raced; the document exists now
+            counter = mongoOperations.findAndModify(query, update, options, Counter.class);
+        }
+        if (counter == null) {
+            throw new IllegalStateException("Could not reserve values of sequence " + name);
+        }
+        return counter.getSeq();
+    }
+
+    private static final class Holder {
+        private volatile Block current;
+    }
+
+    // Values first..last; cursor runs past last once the block is used up
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.cursor = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
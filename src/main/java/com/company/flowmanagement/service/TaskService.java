@@ -1,6 +1,11 @@
 package com.company.flowmanagement.service;
 
+import com.company.flowmanagement.model.DashboardCounts;
 import com.company.flowmanagement.model.Employee;
+import com.company.flowmanagement.model.InboxDetailRow;
+import com.company.flowmanagement.model.FmsStepInstance;
+import com.company.flowmanagement.model.InboxItem;
+import com.company.flowmanagement.model.InboxRow;
 import com.company.flowmanagement.model.Project;
 import com.company.flowmanagement.model.Task;
 import com.company.flowmanagement.model.User;
@@ -8,219 +13,177 @@ import com.company.flowmanagement.repository.EmployeeRepository;
 import com.company.flowmanagement.repository.ProjectRepository;
 import com.company.flowmanagement.repository.TaskRepository;
 import com.company.flowmanagement.repository.UserRepository;
-import com.company.flowmanagement.repository.O2DConfigRepository;
-import com.company.flowmanagement.repository.PlanningEntryRepository;
-import com.company.flowmanagement.repository.OrderEntryRepository;
-import com.company.flowmanagement.model.O2DConfig;
-import com.company.flowmanagement.model.ProcessStep;
-import com.company.flowmanagement.model.PlanningEntry;
-import com.company.flowmanagement.model.OrderEntry;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    static final String TASK_SEQUENCE = "task";
+    private static final int INSERT_CHUNK_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
-    private final O2DConfigRepository o2dConfigRepository;
-    private final PlanningEntryRepository planningEntryRepository;
-    private final OrderEntryRepository orderEntryRepository;
+    private final FmsStepInstanceService fmsStepInstanceService;
+    private final InboxProjectionService inboxProjectionService;
+    private final ObjectProvider<TaskSnapshot> taskSnapshotProvider;
+    private final DashboardCache dashboardCache;
+    private final SequenceGenerator sequenceGenerator;
+    private final RecurrenceEngine recurrenceEngine;
 
     public TaskService(TaskRepository taskRepository, ProjectRepository projectRepository,
             EmployeeRepository employeeRepository, UserRepository userRepository,
-            O2DConfigRepository o2dConfigRepository,
-            PlanningEntryRepository planningEntryRepository,
-            OrderEntryRepository orderEntryRepository) {
+            FmsStepInstanceService fmsStepInstanceService,
+            InboxProjectionService inboxProjectionService,
+            ObjectProvider<TaskSnapshot> taskSnapshotProvider,
+            DashboardCache dashboardCache,
+            SequenceGenerator sequenceGenerator,
+            RecurrenceEngine recurrenceEngine) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
         this.employeeRepository = employeeRepository;
         this.userRepository = userRepository;
-        this.o2dConfigRepository = o2dConfigRepository;
-        this.planningEntryRepository = planningEntryRepository;
-        this.orderEntryRepository = orderEntryRepository;
+        this.fmsStepInstanceService = fmsStepInstanceService;
+        this.inboxProjectionService = inboxProjectionService;
+        this.taskSnapshotProvider = taskSnapshotProvider;
+        this.dashboardCache = dashboardCache;
+        this.sequenceGenerator = sequenceGenerator;
+        this.recurrenceEngine = recurrenceEngine;
     }
 
     // Generate unique task ID
     public String generateTaskId() {
-        long count = taskRepository.count();
-        return String.format("TASK-%03d", count + 1);
+        return formatTaskId(sequenceGenerator.next(TASK_SEQUENCE));
     }
 
-    // Helper to get all tasks (DB + FMS)
-    private List<Task> getAllTasksForUser(String username) {
-        User user = userRepository.findByUsername(username);
-        // Note: Even if user object is null (e.g. just an Employee record), we might
-        // still want to show FMS tasks
-        // if the username matches the "Responsible Person" string.
-        // However, for Manual Tasks we need User ID.
-
-        List<Task> allTasks = new ArrayList<>();
+    static String formatTaskId(long number) {
+        return String.format("TASK-%03d", number);
+    }
 
-        // 1. DB Tasks (Manual)
-        if (user != null) {
-            allTasks.addAll(taskRepository.findByAssignedToIdOrderByCreatedAtDesc(user.getId()));
+    // Start the task sequence above every TASK-nnn issued before it existed
+    public void seedTaskSequence() {
+        long max = 0;
+        for (Task task : taskRepository.findAllTaskIds()) {
+            try {
+                max = Math.max(max, Long.parseLong(task.getTaskId().substring("TASK-".length())));
+            } catch (NumberFormatException ignored) {
+                // Not a generated ID
+            }
         }
+        sequenceGenerator.ensureAtLeast(TASK_SEQUENCE, max);
+    }
 
-        // 2. FMS Process Steps (Concrete Orders)
-        List<O2DConfig> configs = o2dConfigRepository.findAll();
-        for (O2DConfig config : configs) {
-            if (config.getProcessDetails() == null)
-                continue;
-
-            // Fetch all active planning entries for this folder
-            List<PlanningEntry> plans = planningEntryRepository.findByFolderIdOrderByCreatedAtAsc(config.getId());
-
-            for (PlanningEntry plan : plans) {
-                String orderId = plan.getOrderId();
-                if (orderId == null || plan.getStartDate() == null)
-                    continue;
-
-                // Lookup Order Details (for Client Name, etc.)
-                // We do a "best effort" lookup
-                OrderEntry orderEntry = orderEntryRepository
-                        .findFirstByFolderIdAndOrderIdOrderByCreatedAtDesc(config.getId(), orderId);
-
-                String customerName = "Unknown Client";
-                String projectName = config.getName(); // Default Project Name = Folder Name
-
-                if (orderEntry != null && orderEntry.getFields() != null) {
-                    String cName = findFieldValue(orderEntry.getFields(), "Customer Name", "customer_name");
-                    if (!"-".equals(cName))
-                        customerName = cName;
+    // User record, looked up once per request
+    public User findUser(String username) {
+        TaskSnapshot snapshot = currentSnapshot();
+        return snapshot != null ? snapshot.user(username, userRepository::findByUsername)
+                : userRepository.findByUsername(username);
+    }
 
-                    // String pName = findFieldValue(orderEntry.getFields(), "Company Name",
-                    // "company_name");
-                    // You might prefer Company Name as Project Name? using Client Name as Client.
-                    // Let's stick to Customer Name -> Client.
-                }
+    // Whole inbox of a user, loaded once per request
+    private List<InboxRow> getInbox(String username) {
+        TaskSnapshot snapshot = currentSnapshot();
+        return snapshot != null ? snapshot.inbox(username, inboxProjectionService::findInbox)
+                : inboxProjectionService.findInbox(username);
+    }
 
-                LocalDate startDate = null;
-                try {
-                    startDate = LocalDate.parse(plan.getStartDate());
-                } catch (Exception e) {
-                    continue;
-                }
+    // Request-scoped snapshot, or null outside of an HTTP request
+    private TaskSnapshot currentSnapshot() {
+        return RequestContextHolder.getRequestAttributes() != null ? taskSnapshotProvider.getIfAvailable() : null;
+    }
 
-                for (int i = 0; i < config.getProcessDetails().size(); i++) {
-                    ProcessStep step = config.getProcessDetails().get(i);
-                    String person = step.getResponsiblePerson();
-
-                    if (person != null && person.trim().equalsIgnoreCase(username.trim())) {
-                        Task stepTask = new Task();
-                        // Composite ID: FMS + FolderID + OrderID + StepIndex
-                        stepTask.setTaskId("FMS_" + config.getId() + "_" + orderId + "_" + i);
-
-                        // Title: Step Name + Order ID
-                        stepTask.setTitle(step.getStepProcess() + " (" + orderId + ")");
-
-                        stepTask.setProjectName(projectName);
-                        stepTask.setClientName(customerName);
-                        stepTask.setAssignedToName(username);
-                        stepTask.setAssignedByName("System"); // FMS Auto-Assign
-
-                        // Target Date
-                        if (step.getDays() != null) {
-                            stepTask.setTargetDate(startDate.plusDays(step.getDays()).toString());
-                        } else {
-                            stepTask.setTargetDate("-");
-                        }
-
-                        // Status
-                        stepTask.setStatus(step.getStatus() != null ? step.getStatus() : "PENDING");
-
-                        // Remarks (if any saved in step def, though usually instance remarks are stored
-                        // elsewhere.
-                        // FMS Steps currently store status in the Config definition which is shared
-                        // across orders...
-                        // WAIT. FMS architecture flaw: config.getProcessDetails() stores status for the
-                        // *Template*?
-                        // Or is the logic supposed to track status per order?
-                        // Based on EmployeeController, it reads status from 'step.getStatus()'.
-                        // If 'step' is part of 'config', then changing status changes it for ALL
-                        // orders.
-                        // Implication: The current system might handle FMS status poorly (Shared
-                        // State).
-                        // BUT, I must follow the existing pattern.
-                        // If the user wants to see it, I show it.
-                        // Ideally, status should be in a separate 'FMS_Status' table per order.
-                        // For now, I just read what is there.
-
-                        stepTask.setRemarks(step.getRemarks());
-
-                        allTasks.add(stepTask);
-                    }
-                }
-            }
+    private void invalidateSnapshot() {
+        TaskSnapshot snapshot = currentSnapshot();
+        if (snapshot != null) {
+            snapshot.invalidate();
         }
-        return allTasks;
     }
 
-    // Helper for fuzzy field matching
-    private String findFieldValue(Map<String, String> fields, String label, String defaultKey) {
-        if (fields == null)
-            return "-";
-        if (fields.containsKey(defaultKey))
-            return fields.get(defaultKey);
-
-        // Normalize
-        String search = label.toLowerCase().replaceAll("[^a-z0-9]", "");
-        for (Map.Entry<String, String> e : fields.entrySet()) {
-            String key = e.getKey().toLowerCase().replaceAll("[^a-z0-9]", "");
-            if (key.contains(search) || search.contains(key)) {
-                return e.getValue();
-            }
+    // Task row of the task tables: the displayed columns, plus the progress
+    // fields when the row carries them (InboxDetailRow)
+    private Task toTask(InboxRow item) {
+        Task task = new Task();
+        if (InboxItem.SOURCE_TASK.equals(item.getSource())) {
+            task.setId(item.getSourceId());
+        }
+        task.setTaskId(item.getTaskId());
+        task.setTitle(item.getTitle());
+        task.setProjectName(item.getProjectName());
+        task.setClientName(item.getClientName());
+        task.setAssignedToName(item.getAssignedToName());
+        task.setTargetDate(item.getTargetDate());
+        task.setStatus(item.getStatus());
+        task.setAssignedFile(item.getAssignedFile());
+        task.setCreatedAt(item.getCreatedAt());
+        if (item instanceof InboxDetailRow detail) {
+            task.setAssignedByName(detail.getAssignedByName());
+            task.setCompletionDate(detail.getCompletionDate());
+            task.setRemarks(detail.getRemarks());
+            task.setCompletionFile(detail.getCompletionFile());
+            task.setUpdatedAt(detail.getUpdatedAt());
         }
-        return "-";
+        return task;
     }
 
-    // Get dashboard stats for a user
+    // Get dashboard stats for a user (cached until one of their inbox rows changes)
     public Map<String, Object> getDashboardStats(String username) {
-        List<Task> allTasks = getAllTasksForUser(username);
+        return dashboardCache.stats(username, () -> loadDashboardStats(username));
+    }
 
-        long totalTasks = allTasks.size();
-        long onTimeCount = allTasks.stream()
-                .filter(t -> "On Time".equals(t.getStatus()) || "Completed".equals(t.getStatus())).count(); // broad def
-                                                                                                            // for now
+    // Counted by MongoDB (see InboxItemRepositoryImpl) or from the request's inbox
+    private Map<String, Object> loadDashboardStats(String username) {
+        DashboardCounts counts;
+        TaskSnapshot snapshot = currentSnapshot();
+        if (snapshot == null) {
+            counts = inboxProjectionService.countAssigned(username);
+        } else if (snapshot.loadedInbox(username) != null) {
+            // The page already holds the whole inbox: count it instead of another round trip
+            List<String> statuses = new ArrayList<>();
+            for (InboxRow item : snapshot.loadedInbox(username)) {
+                if (InboxItem.KIND_ASSIGNED.equals(item.getKind())) {
+                    statuses.add(item.getStatus());
+                }
+            }
+            counts = snapshot.counts(username, key -> DashboardCounts.tally(statuses));
+        } else {
+            counts = snapshot.counts(username, inboxProjectionService::countAssigned);
+        }
 
-        // Calculate OTC score (On Time Completion)
-        double otcScore = totalTasks > 0 ? (double) onTimeCount / totalTasks * 100 : 0;
-        String otcScoreStr = String.format("%.0f%%", otcScore);
+        // OTC score (On Time Completion)
+        String otcScoreStr = String.format("%.0f%%", counts.getOtcScore());
 
         // Chart data
-        Map<String, Long> statusCounts = allTasks.stream()
-                .collect(Collectors.groupingBy(task -> task.getStatus() != null ? task.getStatus() : "PENDING",
-                        Collectors.counting()));
-
         List<Map<String, Object>> chartData = Arrays.asList(
-                Map.of("name", "On Time", "value", statusCounts.getOrDefault("On Time", 0L), "color", "#22c55e"),
-                Map.of("name", "In Progress", "value", statusCounts.getOrDefault("In Progress", 0L), "color",
-                        "#3b82f6"),
-                Map.of("name", "Delayed", "value", statusCounts.getOrDefault("Delayed", 0L), "color", "#facc15"),
-                Map.of("name", "Overdue", "value", statusCounts.getOrDefault("Overdue", 0L), "color", "#ef4444"),
-                Map.of("name", "Pending", "value", statusCounts.getOrDefault("PENDING", 0L), "color", "#94a3b8"));
+                Map.of("name", "On Time", "value", counts.getOnTimeStatus(), "color", "#22c55e"),
+                Map.of("name", "In Progress", "value", counts.getInProgress(), "color", "#3b82f6"),
+                Map.of("name", "Delayed", "value", counts.getDelayed(), "color", "#facc15"),
+                Map.of("name", "Overdue", "value", counts.getOverdue(), "color", "#ef4444"),
+                Map.of("name", "Pending", "value", counts.getPending(), "color", "#94a3b8"));
 
         return Map.of(
-                "total_tasks", totalTasks,
-                "on_time_count", onTimeCount,
+                "total_tasks", counts.getTotal(),
+                "on_time_count", counts.getOnTime(),
                 "otc_score", otcScoreStr,
                 "ats_score", "85%", // Placeholder
                 "chart_data", chartData);
     }
 
-    // Get client-project map for a user
-    public Map<String, List<Project>> getClientProjectMap(String username) {
-        // User user = userRepository.findByUsername(username);
-        // Look up db tasks plus FMS tasks to build this map dynamically if needed?
-        // For now, keep existing logic (returns all projects)
-        // OR better: return projects relevant to the user's tasks
+    // Get client-project map (every project, the same for all users; cached once)
+    public Map<String, List<Project>> getClientProjectMap() {
+        return dashboardCache.clientProjects(this::loadClientProjectMap);
+    }
 
+    private Map<String, List<Project>> loadClientProjectMap() {
         List<Project> allProjects = projectRepository.findAll();
 
         return allProjects.stream()
@@ -229,19 +192,20 @@ public class TaskService {
 
     // Get tasks for user
     public Map<String, List<Task>> getUserTasks(String username) {
-        List<Task> allTasks = getAllTasksForUser(username);
-
-        List<Task> myActive = allTasks.stream()
-                .filter(t -> !"Completed".equalsIgnoreCase(t.getStatus()))
-                .collect(Collectors.toList());
-
-        List<Task> myCompleted = allTasks.stream()
-                .filter(t -> "Completed".equalsIgnoreCase(t.getStatus()))
-                .collect(Collectors.toList());
-
-        User user = userRepository.findByUsername(username);
-        List<Task> delegated = user != null ? taskRepository.findDelegatedTasksByAssignedById(user.getId())
-                : new ArrayList<>();
+        List<Task> myActive = new ArrayList<>();
+        List<Task> myCompleted = new ArrayList<>();
+        List<Task> delegated = new ArrayList<>();
+
+        for (InboxRow item : getInbox(username)) {
+            Task task = toTask(item);
+            if (InboxItem.KIND_DELEGATED.equals(item.getKind())) {
+                delegated.add(task);
+            } else if ("Completed".equalsIgnoreCase(task.getStatus())) {
+                myCompleted.add(task);
+            } else {
+                myActive.add(task);
+            }
+        }
 
         return Map.of(
                 "myTasks", myActive,
@@ -249,62 +213,92 @@ public class TaskService {
                 "delegatedTasks", delegated);
     }
 
+    // One keyset page of a task bucket (myTasks, completedTasks or delegatedTasks).
+    // The cursor is opaque to clients: pass back the nextCursor of the previous page.
+    public Map<String, Object> getUserTaskPage(String username, String bucket, String status, String targetFrom,
+            String targetTo, String cursor, int size) {
+        if (!InboxItem.BUCKET_ACTIVE.equals(bucket) && !InboxItem.BUCKET_COMPLETED.equals(bucket)
+                && !InboxItem.BUCKET_DELEGATED.equals(bucket)) {
+            throw new IllegalArgumentException("Unknown task bucket: " + bucket);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Instant afterCreatedAt = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            // Cursor: base64url("<createdAt epoch millis>:<inbox row id>") of the last row served
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = decoded.indexOf(':');
+                afterCreatedAt = Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, sep)));
+                afterId = decoded.substring(sep + 1);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Read one extra row to know whether another page follows
+        List<InboxDetailRow> rows = inboxProjectionService.findPage(username, bucket, blankToNull(status),
+                blankToNull(targetFrom), blankToNull(targetTo), afterCreatedAt, afterId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (InboxDetailRow item : rows) {
+            tasks.add(toTask(item));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            InboxDetailRow last = rows.get(rows.size() - 1);
+            String raw = last.getCreatedAt().toEpochMilli() + ":" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("bucket", bucket);
+        page.put("tasks", tasks);
+        page.put("nextCursor", nextCursor);
+        page.put("hasMore", hasMore);
+        return page;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     // Create task
     public Task createTask(Task task) {
         task.setTaskId(generateTaskId());
         task.setCreatedAt(Instant.now());
         task.setUpdatedAt(Instant.now());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        inboxProjectionService.projectTasks(List.of(saved));
+        // A repeatable task gets its upcoming occurrences right away
+        recurrenceEngine.materialize(List.of(saved));
+        invalidateSnapshot();
+        return saved;
     }
 
     // Update task status
     public Task updateTaskStatus(String taskId, String status, String remarks, String completionDate,
             String completionFile) {
-        // Check if it's an FMS Step
+        // FMS steps are tracked per order: FMS_<ConfigID>_<OrderId>_<StepIndex>
         if (taskId != null && taskId.startsWith("FMS_")) {
-            // ID Format: FMS_<ConfigID>_<OrderId>_<StepIndex>
-            // Note: Currently we only have one set of ProcessSteps per Config.
-            // Converting this to update the SHARED config step is correct for now
-            // (based on current app architecture), even though it affects all orders
-            // theoretically.
-            // WAIT. If I update the config, it updates for everyone.
-            // But the Architecture seems to have "ProcessStatus" on the Config object
-            // itself.
-            // This is a known limitation I must work with.
-
-            String[] parts = taskId.split("_");
-            // FMS, ConfigID, OrderId, StepIndex
-            // But OrderId might contain underscores? No, usually typical IDs don't.
-            // Let's assume standard IDs.
-
-            if (parts.length >= 4) {
-                String configId = parts[1];
-                // parts[2] is orderId, ignore for now as we update the Template Step
-                // parts[last] is index
-
-                int stepIndex = Integer.parseInt(parts[parts.length - 1]);
-
-                O2DConfig config = o2dConfigRepository.findById(configId).orElse(null);
-                if (config != null && config.getProcessDetails() != null
-                        && stepIndex < config.getProcessDetails().size()) {
-                    ProcessStep step = config.getProcessDetails().get(stepIndex);
-                    step.setStatus(status);
-                    step.setRemarks(remarks);
-                    step.setCompletionDate(completionDate);
-                    if (completionFile != null) {
-                        step.setCompletionFile(completionFile);
-                    }
-
-                    o2dConfigRepository.save(config);
-
-                    // Return a dummy task to satisfy controller
-                    Task dummy = new Task();
-                    dummy.setTaskId(taskId);
-                    dummy.setStatus(status);
-                    return dummy;
-                }
+            FmsStepInstance instance = fmsStepInstanceService.updateStatus(taskId.substring("FMS_".length()),
+                    status, remarks, completionDate, completionFile);
+            if (instance == null) {
+                return null;
             }
-            return null;
+            invalidateSnapshot();
+
+            // Return a dummy task to satisfy controller
+            Task dummy = new Task();
+            dummy.setTaskId(taskId);
+            dummy.setStatus(status);
+            return dummy;
         }
 
         Task task = taskRepository.findByTaskId(taskId);
@@ -316,18 +310,162 @@ public class TaskService {
                 task.setCompletionFile(completionFile);
             }
             task.setUpdatedAt(Instant.now());
-            return taskRepository.save(task);
+            Task saved = taskRepository.save(task);
+            inboxProjectionService.projectTasks(List.of(saved));
+            invalidateSnapshot();
+            return saved;
         }
         return null;
     }
 
-    // Bulk create tasks
-    public List<Task> createBulkTasks(List<Task> tasks) {
-        tasks.forEach(task -> {
-            task.setTaskId(generateTaskId());
-            task.setCreatedAt(Instant.now());
-            task.setUpdatedAt(Instant.now());
-        });
-        return taskRepository.saveAll(tasks);
+    /**
+     * Set the status of many tasks at once. FMS step IDs are grouped per
+     * folder and manual task IDs together, each group written with a single
+     * multi-document update; the result reports every requested ID.
+     */
+    public Map<String, Object> updateTaskStatusAll(List<String> taskIds, String status, String remarks,
+            String completionDate) {
+        Map<String, String> instanceIdByTaskId = new LinkedHashMap<>();
+        Set<String> manualIds = new LinkedHashSet<>();
+        for (String taskId : taskIds) {
+            if (taskId == null || taskId.isBlank()) {
+                continue;
+            }
+            if (taskId.startsWith("FMS_")) {
+                instanceIdByTaskId.put(taskId, taskId.substring("FMS_".length()));
+            } else {
+                manualIds.add(taskId);
+            }
+        }
+
+        Set<String> found = new HashSet<>();
+        if (!instanceIdByTaskId.isEmpty()) {
+            for (FmsStepInstance instance : fmsStepInstanceService.updateStatusAll(instanceIdByTaskId.values(),
+                    status, remarks, completionDate)) {
+                found.add("FMS_" + instance.getId());
+            }
+        }
+        if (!manualIds.isEmpty()) {
+            taskRepository.updateStatusByTaskIds(manualIds, status, remarks, completionDate, Instant.now());
+            List<Task> updated = taskRepository.findByTaskIdIn(manualIds);
+            inboxProjectionService.projectTasks(updated);
+            for (Task task : updated) {
+                found.add(task.getTaskId());
+            }
+        }
+        invalidateSnapshot();
+
+        List<Map<String, Object>> results = new ArrayList<>(taskIds.size());
+        for (String taskId : taskIds) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("taskId", taskId);
+            result.put("status", found.contains(taskId) ? "updated" : "not_found");
+            results.add(result);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("updated", found.size());
+        summary.put("results", results);
+        return summary;
+    }
+
+    /**
+     * Bulk create tasks assigned by {@code assignedBy}. Assignees are resolved
+     * with one query (a name matching no user is kept without an id, as the
+     * single-task form does), task IDs come from one sequence range and the
+     * tasks are written with unordered inserts of at most
+     * {@value #INSERT_CHUNK_SIZE}. Missing or failed items do not stop the
+     * rest; the result lists the outcome of every item by its index in
+     * {@code tasks}.
+     */
+    public Map<String, Object> createBulkTasks(List<Task> tasks, User assignedBy) {
+        List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+
+        // Resolve every assignee name at once
+        Set<String> names = new HashSet<>();
+        for (Task task : tasks) {
+            if (task != null && task.getAssignedToName() != null && !task.getAssignedToName().isBlank()) {
+                names.add(task.getAssignedToName());
+            }
+        }
+        Map<String, User> usersByName = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (User user : userRepository.findByUsernameIn(names)) {
+                usersByName.put(user.getUsername(), user);
+            }
+        }
+
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task == null) {
+                results.set(i, itemError(i, "Missing task"));
+            } else {
+                validIndexes.add(i);
+            }
+        }
+
+        int created = 0;
+        if (!validIndexes.isEmpty()) {
+            // One range for the whole batch
+            long next = sequenceGenerator.nextBlock(TASK_SEQUENCE, validIndexes.size());
+            Instant now = Instant.now();
+            for (int index : validIndexes) {
+                Task task = tasks.get(index);
+                task.setId(new ObjectId().toHexString());
+                task.setTaskId(formatTaskId(next++));
+                task.setAssignedById(assignedBy.getId());
+                task.setAssignedByName(assignedBy.getUsername());
+                User assignee = usersByName.get(task.getAssignedToName());
+                if (assignee != null) {
+                    task.setAssignedToId(assignee.getId());
+                }
+                task.setCreatedAt(now);
+                task.setUpdatedAt(now);
+            }
+
+            for (int from = 0; from < validIndexes.size(); from += INSERT_CHUNK_SIZE) {
+                List<Integer> chunkIndexes = validIndexes.subList(from,
+                        Math.min(from + INSERT_CHUNK_SIZE, validIndexes.size()));
+                List<Task> chunk = new ArrayList<>(chunkIndexes.size());
+                for (int index : chunkIndexes) {
+                    chunk.add(tasks.get(index));
+                }
+                Map<Integer, String> errors = taskRepository.insertUnordered(chunk);
+                List<Task> inserted = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    int index = chunkIndexes.get(i);
+                    if (errors.containsKey(i)) {
+                        results.set(index, itemError(index, errors.get(i)));
+                    } else {
+                        Task task = chunk.get(i);
+                        inserted.add(task);
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("index", index);
+                        result.put("status", "created");
+                        result.put("id", task.getId());
+                        result.put("taskId", task.getTaskId());
+                        results.set(index, result);
+                    }
+                }
+                inboxProjectionService.projectTasks(inserted);
+                recurrenceEngine.materialize(inserted);
+                created += inserted.size();
+            }
+            invalidateSnapshot();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("created", created);
+        summary.put("failed", tasks.size() - created);
+        summary.put("results", results);
+        return summary;
+    }
+
+    private static Map<String, Object> itemError(int index, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("status", "error");
+        result.put("error", message);
+        return result;
     }
 }
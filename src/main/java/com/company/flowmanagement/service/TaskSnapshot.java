@@ -0,0 +1,50 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.DashboardCounts;
+import com.company.flowmanagement.model.InboxRow;
+import com.company.flowmanagement.model.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-request memo of everything {@link TaskService} reads for a user, so a
+ * page that asks for stats, tasks and the user record loads each of them at
+ * most once per HTTP request.
+ */
+@Component
+@RequestScope
+public class TaskSnapshot {
+
+    private final Map<String, Optional<User>> users = new ConcurrentHashMap<>();
+    private final Map<String, List<InboxRow>> inboxes = new ConcurrentHashMap<>();
+    private final Map<String, DashboardCounts> counts = new ConcurrentHashMap<>();
+
+    public User user(String username, Function<String, User> loader) {
+        return users.computeIfAbsent(username, key -> Optional.ofNullable(loader.apply(key))).orElse(null);
+    }
+
+    public List<InboxRow> inbox(String username, Function<String, List<InboxRow>> loader) {
+        return inboxes.computeIfAbsent(username, loader);
+    }
+
+    // The inbox if this request already loaded it, else null
+    public List<InboxRow> loadedInbox(String username) {
+        return inboxes.get(username);
+    }
+
+    public DashboardCounts counts(String username, Function<String, DashboardCounts> loader) {
+        return counts.computeIfAbsent(username, loader);
+    }
+
+    // Drop what a write in this request may have changed
+    public void invalidate() {
+        inboxes.clear();
+        counts.clear();
+    }
+}
@@ -0,0 +1,141 @@
+// Lazy page sections (page.lazy-sections / ?lazy=true).
+//
+// A container marked data-lazy-section="<name>" data-lazy-url="<json endpoint>"
+// is fetched when it scrolls into view; with data-lazy-collapsed it is fetched
+// only when expanded. The page registers one renderer per section name. Rows go
+// into the container's <tbody>, the count into its [data-lazy-count] badge.
+
+const LazySections = (() => {
+    const renderers = {};
+    const requests = {};
+    const loaded = new WeakSet();
+
+    function escapeHtml(value) {
+        if (value === null || value === undefined) return "";
+        return String(value)
+            .replace(/&/g, "&amp;")
+            .replace(/</g, "&lt;")
+            .replace(/>/g, "&gt;")
+            .replace(/"/g, "&quot;")
+            .replace(/'/g, "&#39;");
+    }
+
+    // One request per URL: sections sharing an endpoint (pending steps) share the response
+    function fetchJson(url) {
+        if (!requests[url]) {
+            requests[url] = fetch(url, { headers: { "Accept": "application/json" }, credentials: "same-origin" })
+                .then(res => {
+                    if (!res.ok) throw new Error("HTTP " + res.status);
+                    return res.json();
+                })
+                .catch(err => {
+                    delete requests[url];
+                    throw err;
+                });
+        }
+        return requests[url];
+    }
+
+    function messageRow(colspan, text) {
+        return '<tr><td colspan="' + colspan + '" class="text-center" style="padding: 20px; color: #94a3b8;">'
+            + escapeHtml(text) + "</td></tr>";
+    }
+
+    function setCount(el, count, more) {
+        const badge = el.querySelector("[data-lazy-count]");
+        if (badge) badge.textContent = count + (more ? "+" : "") + " Records";
+    }
+
+    function load(el) {
+        if (loaded.has(el)) return;
+        const render = renderers[el.dataset.lazySection];
+        if (!render) return;
+        loaded.add(el);
+        fetchJson(el.dataset.lazyUrl)
+            .then(data => render(el, data))
+            .catch(() => {
+                loaded.delete(el);
+                const body = el.querySelector("tbody");
+                if (body) body.innerHTML = messageRow(el.querySelectorAll("thead th").length || 1,
+                    "Could not load this section.");
+            });
+    }
+
+    // Any other section: render(el, data)
+    function register(name, render) {
+        renderers[name] = render;
+    }
+
+    // Simple section: items(data) is the whole list
+    function table(name, options) {
+        renderers[name] = (el, data) => {
+            const items = options.items(data, el) || [];
+            const body = el.querySelector("tbody");
+            body.innerHTML = items.length
+                ? items.map(options.row).join("")
+                : messageRow(options.colspan, options.empty);
+            setCount(el, items.length, false);
+        };
+    }
+
+    // Keyset-paged task section: { tasks, nextCursor, hasMore }, "Load more" fetches the next page
+    function pagedTable(name, options) {
+        renderers[name] = (el, data) => appendPage(el, data, options, true);
+    }
+
+    function appendPage(el, data, options, first) {
+        const body = el.querySelector("tbody");
+        const tasks = data.tasks || [];
+        if (first) body.innerHTML = "";
+        const more = body.querySelector("[data-lazy-more]");
+        if (more) more.remove();
+        body.insertAdjacentHTML("beforeend", tasks.map(options.row).join(""));
+
+        const count = body.querySelectorAll("tr").length;
+        if (count === 0) body.innerHTML = messageRow(options.colspan, options.empty);
+        setCount(el, count, data.hasMore);
+
+        if (data.hasMore && data.nextCursor) {
+            body.insertAdjacentHTML("beforeend", '<tr data-lazy-more><td colspan="' + options.colspan
+                + '" class="text-center" style="padding: 12px;"><button type="button" class="table-action-btn">'
+                + "Load more</button></td></tr>");
+            body.querySelector("[data-lazy-more] button").addEventListener("click", event => {
+                event.target.disabled = true;
+                const url = el.dataset.lazyUrl;
+                const next = url + (url.indexOf("?") >= 0 ? "&" : "?") + "cursor=" + encodeURIComponent(data.nextCursor);
+                fetchJson(next)
+                    .then(page => appendPage(el, page, options, false))
+                    .catch(() => { event.target.disabled = false; });
+            });
+        }
+    }
+
+    // Toggle a collapsed section; its rows are fetched the first time it opens
+    function expand(el, button) {
+        const body = el.querySelector("[data-lazy-body]");
+        const open = body.style.display === "none";
+        body.style.display = open ? "" : "none";
+        if (button) button.textContent = open ? "Hide" : "Show";
+        if (open) load(el);
+    }
+
+    function init() {
+        const sections = document.querySelectorAll("[data-lazy-section]");
+        const observer = "IntersectionObserver" in window
+            ? new IntersectionObserver(entries => entries.forEach(entry => {
+                if (entry.isIntersecting) {
+                    observer.unobserve(entry.target);
+                    load(entry.target);
+                }
+            }), { rootMargin: "200px" })
+            : null;
+        sections.forEach(el => {
+            if (el.hasAttribute("data-lazy-collapsed")) return;
+            if (observer) observer.observe(el); else load(el);
+        });
+    }
+
+    document.addEventListener("DOMContentLoaded", init);
+
+    return { register, table, pagedTable, expand, load, escapeHtml, fetchJson };
+})();
@@ -0,0 +1,138 @@
+// Order entry grid: keyset pages of /order-entry/rows, virtually scrolled.
+//
+// OrderGrid.create(el, options) drives a container holding a scroll viewport
+// [data-grid-viewport] with a <table>. Only the rows in view (plus a margin)
+// are in the DOM; a spacer row above and below keeps the scroll height of
+// everything loaded so far, and the next page is fetched as the viewport nears
+// the end of it. Pages follow a cursor, so the grid grows as it scrolls rather
+// than jumping ahead.
+//
+// options: url, pageSize, colspan, empty (message), params() (the current
+// filters and sort), row(row, index) (the <tr> html of one row, ROW_HEIGHT tall).
+
+const OrderGrid = (() => {
+    const ROW_HEIGHT = 44;
+    const OVERSCAN = 12;
+
+    function escapeHtml(value) {
+        if (value === null || value === undefined) return "";
+        return String(value)
+            .replace(/&/g, "&amp;")
+            .replace(/</g, "&lt;")
+            .replace(/>/g, "&gt;")
+            .replace(/"/g, "&quot;")
+            .replace(/'/g, "&#39;");
+    }
+
+    function create(el, options) {
+        const viewport = el.querySelector("[data-grid-viewport]");
+        const body = el.querySelector("tbody");
+        const badge = el.querySelector("[data-grid-count]");
+        let state = null;
+        let frame = 0;
+
+        function messageRow(text) {
+            return '<tr><td colspan="' + options.colspan + '" style="padding: 20px; text-align: center; color: #94a3b8;">'
+                + escapeHtml(text) + "</td></tr>";
+        }
+
+        function spacer(height) {
+            return height > 0
+                ? '<tr aria-hidden="true"><td colspan="' + options.colspan
+                    + '" style="height:' + height + 'px; padding:0; border:0;"></td></tr>'
+                : "";
+        }
+
+        function render() {
+            frame = 0;
+            const rows = state.rows;
+            if (!rows.length) {
+                body.innerHTML = messageRow(state.loading ? "Loading..." : state.failed
+                    ? "Could not load the orders." : options.empty);
+                return;
+            }
+            const first = Math.max(0, Math.min(rows.length - 1,
+                Math.floor(viewport.scrollTop / ROW_HEIGHT) - OVERSCAN));
+            const last = Math.min(rows.length,
+                first + Math.ceil(viewport.clientHeight / ROW_HEIGHT) + 2 * OVERSCAN);
+            let html = spacer(first * ROW_HEIGHT);
+            for (let i = first; i < last; i++) {
+                html += options.row(rows[i], i);
+            }
+            html += spacer((rows.length - last) * ROW_HEIGHT);
+            if (state.loading || state.failed) {
+                html += messageRow(state.loading ? "Loading..." : "Could not load more orders.");
+            }
+            body.innerHTML = html;
+            if (last + OVERSCAN >= rows.length) {
+                loadMore();
+            }
+        }
+
+        function schedule() {
+            if (!frame) frame = requestAnimationFrame(render);
+        }
+
+        function updateCount() {
+            if (!badge) return;
+            const count = state.total !== null ? state.total : state.rows.length;
+            badge.textContent = count + (state.total === null && state.hasMore ? "+" : "") + " Orders";
+        }
+
+        function loadMore() {
+            if (state.loading || !state.hasMore || state.failed) return;
+            const current = state;
+            const params = new URLSearchParams(options.params());
+            params.set("size", options.pageSize);
+            if (current.cursor) params.set("cursor", current.cursor);
+            current.loading = fetch(options.url + "?" + params.toString(),
+                { headers: { "Accept": "application/json" }, credentials: "same-origin" })
+                .then(res => {
+                    if (!res.ok) throw new Error("HTTP " + res.status);
+                    return res.json();
+                })
+                .then(page => {
+                    current.rows.push(...(page.rows || []));
+                    current.cursor = page.nextCursor;
+                    current.hasMore = !!page.hasMore;
+                    if (page.total !== undefined) current.total = page.total;
+                })
+                .catch(() => {
+                    current.failed = true;
+                })
+                .finally(() => {
+                    current.loading = null;
+                    // A reset meanwhile replaced the state: this page is dropped
+                    if (current === state) {
+                        updateCount();
+                        schedule();
+                    }
+                });
+        }
+
+        // Start over from the first page (filters or sort changed)
+        function reset() {
+            state = { rows: [], cursor: null, hasMore: true, total: null, loading: null, failed: false };
+            viewport.scrollTop = 0;
+            updateCount();
+            loadMore();
+            render();
+        }
+
+        viewport.addEventListener("scroll", schedule, { passive: true });
+        window.addEventListener("resize", schedule);
+        reset();
+        return { reset };
+    }
+
+    // Run fn once input has paused for a moment (filter boxes)
+    function debounce(fn, wait) {
+        let timer = null;
+        return function () {
+            clearTimeout(timer);
+            timer = setTimeout(fn, wait);
+        };
+    }
+
+    return { create, escapeHtml, debounce, ROW_HEIGHT };
+})();
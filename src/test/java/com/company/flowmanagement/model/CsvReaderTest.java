@@ -0,0 +1,50 @@
+package com.company.flowmanagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAndLineEndings() throws IOException {
+        String csv = "\uFEFFOrder ID,Customer Name,Notes\r\n"
+                + "O-1,\"Acme, Inc\",\"said \"\"hi\"\"\"\r\n"
+                + "\n"
+                + "O-2,Zed,\"two\nlines\"\n"
+                + "O-3,,";
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+        while (true) {
+            long line = reader.line();
+            List<String> record = reader.next();
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+            lines.add(line);
+        }
+
+        assertEquals(List.of(
+                List.of("Order ID", "Customer Name", "Notes"),
+                List.of("O-1", "Acme, Inc", "said \"hi\""),
+                List.of(),
+                List.of("O-2", "Zed", "two\nlines"),
+                List.of("O-3", "", "")), records);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 6L), lines);
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n\"open,c\n"));
+        reader.next();
+        assertThrows(IOException.class, reader::next);
+    }
+}
@@ -0,0 +1,47 @@
+package com.company.flowmanagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderEntryTest {
+
+    @Test
+    void canonicalizeStoresCanonicalKeysAndPromotesNames() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("Customer Name", "Acme");
+        fields.put("quantity_(kg)", "12");
+        fields.put("Quantity (KG)", "13");
+        fields.put("company_name", " ");
+        fields.put("???", "kept");
+        OrderEntry entry = new OrderEntry();
+        entry.setFields(fields);
+
+        entry.canonicalize();
+
+        assertEquals(List.of("customer_name", "quantity_kg", "company_name", "???"),
+                List.copyOf(entry.getFields().keySet()));
+        assertEquals("12", entry.getFields().get("quantity_kg"), "the first spelling wins");
+        assertEquals("Acme", entry.getCustomerName());
+        assertEquals("-", entry.getCompanyName());
+        assertEquals(OrderEntry.STATUS_PENDING, entry.getPlanningStatus());
+    }
+
+    @Test
+    void canonicalKeyWinsAndCanonicalizeIsIdempotent() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("Planning Status", "Draft");
+        fields.put("planning_status", "Planned");
+        OrderEntry entry = new OrderEntry();
+        entry.setFields(fields);
+
+        Map<String, String> once = Map.copyOf(entry.canonicalize().getFields());
+        assertEquals(Map.of("planning_status", "Planned"), once);
+        assertEquals("Planned", entry.getPlanningStatus());
+        assertEquals(once, entry.canonicalize().getFields());
+    }
+}
@@ -0,0 +1,56 @@
+package com.company.flowmanagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderSearchTermsTest {
+
+    @Test
+    void everyQueryWordMustPrefixAnOrderWord() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("customer_name", "ACME Industries");
+        fields.put("raw_material", "Steel-Rod 12mm");
+        List<String> terms = OrderSearchTerms.of("O2D-4821", fields);
+
+        assertTrue(matches(terms, "acme ind"));
+        assertTrue(matches(terms, "Indus"));
+        assertTrue(matches(terms, "o2d 48"));
+        assertTrue(matches(terms, "rod 12m"));
+        assertFalse(matches(terms, "acme steelx"));
+        assertFalse(matches(terms, "dustries"));
+    }
+
+    @Test
+    void queryWithoutWordsSearchesNothing() {
+        assertTrue(OrderSearchTerms.query("  -- / ").isEmpty());
+        assertTrue(OrderSearchTerms.query(null).isEmpty());
+        assertEquals(List.of("größe", "ab"), OrderSearchTerms.query("Größe AB größe"));
+    }
+
+    @Test
+    void longWordsAndManyFieldsStayBounded() {
+        String longWord = "x".repeat(40);
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("customer_name", "Zed");
+        for (int i = 0; i < 200; i++) {
+            fields.put("f" + i, "value" + i + " " + longWord + i);
+        }
+        List<String> terms = OrderSearchTerms.of("O-1", fields);
+
+        assertTrue(terms.size() <= OrderSearchTerms.MAX_TERMS);
+        assertTrue(matches(terms, "zed o 1"), "order id and names are indexed first");
+        assertTrue(matches(terms, longWord), "a long query word is cut like the stored prefixes");
+    }
+
+    private static boolean matches(List<String> terms, String query) {
+        List<String> words = OrderSearchTerms.query(query);
+        return !words.isEmpty() && terms.containsAll(words);
+    }
+}
@@ -0,0 +1,117 @@
+package com.company.flowmanagement.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Target dates and overdue checks of 100k order-steps (10,000 planned orders
+ * x 10 process steps): the string path (parse the start date, plusDays,
+ * toString, parse the target again to compare with today) against epoch days
+ * (startDay + days, integer compare), with and without formatting every
+ * target date for display.
+ *
+ * <p>Run with {@code mvn -q test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.company.flowmanagement.model.StepScheduleBenchmark}
+ * or from the IDE; surefire does not pick it up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepScheduleBenchmark {
+
+    private static final int ORDERS = 10_000;
+    private static final int STEPS = 10;
+
+    private String[] startDates;
+    private int[] startDays;
+    private Integer[] stepDays;
+    private LocalDate today;
+    private int todayDay;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        today = LocalDate.of(2025, 6, 1);
+        todayDay = (int) today.toEpochDay();
+        startDates = new String[ORDERS];
+        startDays = new int[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            LocalDate start = today.minusDays(random.nextInt(120));
+            startDates[i] = start.toString();
+            startDays[i] = EpochDays.of(startDates[i]);
+        }
+        stepDays = new Integer[STEPS];
+        for (int s = 0; s < STEPS; s++) {
+            stepDays[s] = 1 + s * 3;
+        }
+    }
+
+    @Benchmark
+    public int stringDates(Blackhole blackhole) {
+        int overdue = 0;
+        for (String startDate : startDates) {
+            LocalDate start = LocalDate.parse(startDate.trim());
+            for (Integer days : stepDays) {
+                String target = start.plusDays(days).toString();
+                blackhole.consume(target);
+                if (LocalDate.parse(target).isBefore(today)) {
+                    overdue++;
+                }
+            }
+        }
+        return overdue;
+    }
+
+    @Benchmark
+    public int epochDays() {
+        int overdue = 0;
+        for (int startDay : startDays) {
+            for (Integer days : stepDays) {
+                if (startDay + days < todayDay) {
+                    overdue++;
+                }
+            }
+        }
+        return overdue;
+    }
+
+    // Epoch days, plus every target formatted once as the view would
+    @Benchmark
+    public int epochDaysFormatted(Blackhole blackhole) {
+        int overdue = 0;
+        for (int startDay : startDays) {
+            for (Integer days : stepDays) {
+                int targetDay = startDay + days;
+                blackhole.consume(EpochDays.format(targetDay));
+                if (targetDay < todayDay) {
+                    overdue++;
+                }
+            }
+        }
+        return overdue;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StepScheduleBenchmark.class.getSimpleName()).build()).run();
+    }
+}
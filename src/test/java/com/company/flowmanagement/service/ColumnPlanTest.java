@@ -0,0 +1,148 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.model.OrderFieldKeys;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnPlanTest {
+
+    private static final List<String> LABELS = List.of("Customer Name", "Company Name", "Planning Status",
+            "Quantity (Kg)", "  Raw--Material ", "Starting Date (Mandatory)", "__odd__", "Größe", "", "PO #");
+
+    @Test
+    void normalizeMatchesTheRegexVersion() {
+        Random random = new Random(7);
+        String alphabet = "aZ9 _-()#.Ä\tß/";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder value = new StringBuilder();
+            for (int j = random.nextInt(12); j > 0; j--) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(regexNormalize(value.toString()), OrderFieldKeys.normalize(value.toString()),
+                    "normalize(\"" + value + "\")");
+        }
+        for (String label : LABELS) {
+            assertEquals(regexNormalize(label), OrderFieldKeys.normalize(label));
+        }
+    }
+
+    @Test
+    void canonicalRowsResolveLikeTheRegexLookup() {
+        O2DConfig config = config(LABELS);
+        ColumnPlan plan = ColumnPlan.compile(config);
+        Random random = new Random(11);
+        List<String> keys = new ArrayList<>();
+        for (String label : LABELS) {
+            keys.add(label);
+            keys.add(regexNormalize(label));
+            keys.add(formKey(label));
+            keys.add(label.toUpperCase());
+        }
+        keys.add("unrelated");
+
+        for (int i = 0; i < 5_000; i++) {
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (int j = random.nextInt(10); j > 0; j--) {
+                String key = keys.get(random.nextInt(keys.size()));
+                int kind = random.nextInt(6);
+                fields.put(key, kind == 0 ? null : kind == 1 ? " " : "v" + random.nextInt(100));
+            }
+            // Fields as posted, stored canonical, read back the way the raw keys used to be
+            ColumnPlan.Row row = plan.apply(OrderFieldKeys.canonicalize(fields));
+            assertEquals(legacyValues(config.getOrderDetails(), fields), row.detailValues(), fields.toString());
+            assertEquals(legacyFind(fields, "Customer Name", "customer_name"), row.customerName());
+            assertEquals(legacyFind(fields, "Company Name", "company_name"), row.companyName());
+            assertEquals(legacyFind(fields, "Planning Status", "planning_status"), row.planningStatus());
+        }
+    }
+
+    @Test
+    void planBelongsToOneFolderVersion() {
+        ColumnPlanCache cache = new ColumnPlanCache(10);
+        O2DConfig config = config(List.of("Customer Name", "Quantity"));
+        ColumnPlan plan = cache.plan(config);
+        assertSame(plan, cache.plan(config));
+        assertTrue(plan.fieldKeys().contains("quantity"));
+
+        config.setVersion(config.getVersion() + 1);
+        config.setOrderDetails(new ArrayList<>(List.of("Customer Name", "Weight (Kg)")));
+        ColumnPlan next = cache.plan(config);
+        assertFalse(next == plan, "a new version compiles a new plan");
+        assertTrue(next.fieldKeys().contains("weight_kg"));
+        assertFalse(next.fieldKeys().contains("quantity"));
+    }
+
+    private static O2DConfig config(List<String> details) {
+        O2DConfig config = new O2DConfig();
+        config.setId("folder-1");
+        config.setVersion(0L);
+        config.setOrderDetails(new ArrayList<>(details));
+        return config;
+    }
+
+    // The lookups the order entry page did before plans existed
+
+    private static String regexNormalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String normalized = value.trim().toLowerCase();
+        normalized = normalized.replaceAll("[^a-z0-9]+", "_");
+        normalized = normalized.replaceAll("^_+", "").replaceAll("_+$", "");
+        return normalized;
+    }
+
+    // The key the order entry form posts for a column label (field_<key>)
+    private static String formKey(String label) {
+        return label.toLowerCase().replace(" ", "_").replace("(", "").replace(")", "");
+    }
+
+    private static List<String> legacyValues(List<String> details, Map<String, String> fields) {
+        List<String> values = new ArrayList<>();
+        for (String detail : details) {
+            String normalizedDetail = regexNormalize(detail);
+            String value = "";
+            if (fields.containsKey(normalizedDetail)) {
+                value = fields.get(normalizedDetail);
+            } else {
+                for (Map.Entry<String, String> field : fields.entrySet()) {
+                    if (regexNormalize(field.getKey()).equals(normalizedDetail)) {
+                        value = field.getValue();
+                        break;
+                    }
+                }
+            }
+            values.add(value == null ? "" : value);
+        }
+        return values;
+    }
+
+    private static String legacyFind(Map<String, String> fields, String label, String defaultKey) {
+        if (fields == null || fields.isEmpty()) {
+            return "-";
+        }
+        if (fields.containsKey(defaultKey)) {
+            String val = fields.get(defaultKey);
+            return (val == null || val.isBlank()) ? "-" : val;
+        }
+        String normalizedLabel = regexNormalize(label);
+        for (Map.Entry<String, String> entry : fields.entrySet()) {
+            if (regexNormalize(entry.getKey()).equals(normalizedLabel)) {
+                String val = entry.getValue();
+                return (val == null || val.isBlank()) ? "-" : val;
+            }
+        }
+        return "-";
+    }
+}
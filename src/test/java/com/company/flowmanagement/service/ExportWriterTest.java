@@ -0,0 +1,57 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.CsvReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExportWriterTest {
+
+    @Test
+    void csvReadsBackThroughCsvReader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.open(ExportService.FORMAT_CSV, out, List.of("Order ID", "Remarks"));
+        writer.row(List.of("O-1", "plain"));
+        writer.row(Arrays.asList("O-2", "says \"hi\", twice\nsecond line"));
+        writer.row(Arrays.asList("O-3", null));
+        writer.flush();
+
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertEquals('\uFEFF', text.charAt(0));
+        CsvReader reader = new CsvReader(new StringReader(text));
+        assertEquals(List.of("Order ID", "Remarks"), reader.next());
+        assertEquals(List.of("O-1", "plain"), reader.next());
+        assertEquals(List.of("O-2", "says \"hi\", twice\nsecond line"), reader.next());
+        assertEquals(List.of("O-3", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.open(ExportService.FORMAT_NDJSON, out, List.of("Order ID", "Qty"));
+        writer.row(List.of("O-1", "5"));
+        writer.row(Arrays.asList("O-\"2\"", null));
+        writer.flush();
+
+        assertEquals("{\"Order ID\":\"O-1\",\"Qty\":\"5\"}\n{\"Order ID\":\"O-\\\"2\\\"\",\"Qty\":null}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void formatDefaultsToCsvAndRejectsOthers() {
+        assertEquals(ExportService.FORMAT_CSV, ExportService.format(null));
+        assertEquals(ExportService.FORMAT_NDJSON, ExportService.format(" NDJSON "));
+        assertThrows(IllegalArgumentException.class, () -> ExportService.format("xlsx"));
+        assertEquals("orders-Plant-A-Q3-", ExportService.fileName("orders-Plant A/Q3", "csv")
+                .substring(0, "orders-Plant-A-Q3-".length()));
+    }
+}
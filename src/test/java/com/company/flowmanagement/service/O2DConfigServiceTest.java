@@ -0,0 +1,61 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.O2DConfig;
+import com.company.flowmanagement.repository.O2DConfigRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class O2DConfigServiceTest {
+
+    private static final MongoPersistentEntity<?> ENTITY =
+            new MongoMappingContext().getRequiredPersistentEntity(O2DConfig.class);
+
+    @Test
+    void onlyAFolderWithoutIdAndVersionIsNew() {
+        assertTrue(ENTITY.isNew(new O2DConfig()));
+        assertTrue(ENTITY.isNew(folder(null)), "no version field stored: save() would insert");
+        assertFalse(ENTITY.isNew(folder(0L)));
+    }
+
+    @Test
+    void folderSavedBeforeVersioningIsStampedAndUpdated() {
+        O2DConfigRepository repository = mock(O2DConfigRepository.class);
+        when(repository.findById("folder-1")).thenReturn(Optional.of(folder(null)), Optional.of(folder(0L)));
+        when(repository.save(any(O2DConfig.class))).thenAnswer(call -> {
+            O2DConfig config = call.getArgument(0);
+            assertFalse(ENTITY.isNew(config), "saved as an update of the existing document");
+            return config;
+        });
+        FolderBoardCache folderBoardCache = mock(FolderBoardCache.class);
+
+        O2DConfig saved = new O2DConfigService(repository, folderBoardCache)
+                .update("folder-1", config -> config.setName("Renamed"));
+
+        assertEquals("Renamed", saved.getName());
+        assertEquals(0L, saved.getVersion());
+        verify(repository).stampMissingVersions();
+        verify(folderBoardCache).invalidate(List.of("folder-1"));
+    }
+
+    private static O2DConfig folder(Long version) {
+        O2DConfig config = new O2DConfig();
+        config.setId("folder-1");
+        config.setVersion(version);
+        config.setName("Plant A");
+        config.setOrderDetails(new ArrayList<>(List.of("Customer Name")));
+        return config;
+    }
+}
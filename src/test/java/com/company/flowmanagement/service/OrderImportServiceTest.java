@@ -0,0 +1,61 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.O2DConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderImportServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-05T10:00:00Z");
+
+    @Test
+    void headersMapToTheFolderColumnsAsTheFormWritesThem() {
+        OrderImportService.Columns columns = columns();
+        assertEquals(0, columns.orderIdColumn);
+        assertEquals(List.of("Colour"), columns.unmapped);
+
+        OrderImportService.Validated ok = OrderImportService.validate("folder-1", columns,
+                new OrderImportService.Row(2, List.of(" O-7 ", "Acme", "12", "2026-01-09", "red")), NOW);
+        assertNull(ok.error);
+        assertEquals("O-7", ok.entry.getOrderId());
+        assertEquals(Map.of("customer_name", "Acme", "quantity_kg", "12", "starting_date_mandatory", "2026-01-09"),
+                ok.entry.getFields());
+        assertEquals(NOW, ok.entry.getCreatedAt());
+    }
+
+    @Test
+    void rowsAreRejectedWithAReason() {
+        OrderImportService.Columns columns = columns();
+        assertEquals("Order ID is missing", reject(columns, List.of("", "Acme", "1", "2026-01-09", "")));
+        assertEquals("Starting Date (Mandatory) is required", reject(columns, List.of("O-1", "Acme", "1", " ", "")));
+        assertEquals("6 values for 5 columns", reject(columns, List.of("O-1", "a", "1", "d", "", "extra")));
+
+        OrderImportService.Validated blank = OrderImportService.validate("folder-1", columns,
+                new OrderImportService.Row(9, List.of("", " ")), NOW);
+        assertNull(blank.entry);
+        assertNull(blank.error);
+    }
+
+    private static String reject(OrderImportService.Columns columns, List<String> values) {
+        OrderImportService.Validated result = OrderImportService.validate("folder-1", columns,
+                new OrderImportService.Row(3, values), NOW);
+        assertNull(result.entry);
+        return result.error;
+    }
+
+    private static OrderImportService.Columns columns() {
+        O2DConfig config = new O2DConfig();
+        config.setId("folder-1");
+        config.setOrderDetails(new ArrayList<>(List.of("Customer Name", "Quantity (Kg)",
+                "Starting Date (Mandatory)")));
+        return OrderImportService.mapHeader(ColumnPlan.compile(config),
+                List.of("Order ID", "customer name", "QUANTITY KG", "Starting Date (Mandatory)", "Colour"));
+    }
+}
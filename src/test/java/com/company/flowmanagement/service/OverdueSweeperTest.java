@@ -0,0 +1,89 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.EpochDays;
+import com.company.flowmanagement.model.Task;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class OverdueSweeperTest {
+
+    private static final MappingMongoConverter CONVERTER = converter();
+
+    @Test
+    void onlyOpenTasksPastTheirDueDayAreSwept() {
+        int today = EpochDays.of("2026-03-10");
+        List<String> swept = new ArrayList<>();
+        for (String status : Arrays.asList("In Progress", "Pending", "PENDING", null, "Completed", "On Time",
+                "Delayed", "Overdue")) {
+            if (matches(OverdueSweeper.overdueCriteria(today).getCriteriaObject(), stored(status, "2026-03-09"))) {
+                swept.add(status);
+            }
+        }
+        assertEquals(Arrays.asList("In Progress", "Pending", "PENDING", null), swept);
+
+        Document dueToday = stored("In Progress", "2026-03-10");
+        Document noDate = stored("In Progress", "-");
+        assertFalse(matches(OverdueSweeper.overdueCriteria(today).getCriteriaObject(), dueToday));
+        assertFalse(matches(OverdueSweeper.overdueCriteria(today).getCriteriaObject(), noDate));
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // The task as MongoDB stores it (null properties are left out)
+    private static Document stored(String status, String targetDate) {
+        Task task = new Task();
+        task.setStatus(status);
+        task.setTargetDate(targetDate);
+        Document doc = new Document();
+        CONVERTER.write(task, doc);
+        return doc;
+    }
+
+    // Evaluates the equality, $in and $lt predicates the sweep uses
+    private static boolean matches(Document criteria, Document doc) {
+        for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+            Object value = doc.get(entry.getKey());
+            if (!(entry.getValue() instanceof Document operators)) {
+                if (!Objects.equals(entry.getValue(), value)) {
+                    return false;
+                }
+                continue;
+            }
+            for (Map.Entry<String, Object> operator : operators.entrySet()) {
+                boolean ok = switch (operator.getKey()) {
+                    case "$in" -> ((Collection<?>) operator.getValue()).contains(value);
+                    case "$lt" -> value instanceof Number number
+                            && number.longValue() < ((Number) operator.getValue()).longValue();
+                    default -> throw new IllegalArgumentException("Unsupported operator " + operator.getKey());
+                };
+                if (!ok) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.flowmanagement.service;
+
+import com.company.flowmanagement.model.Counter;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SequenceGeneratorTest {
+
+    private static final int BLOCK_SIZE = 100;
+
+    // Stand-in for the counters document: findAndModify($inc) is atomic in MongoDB
+    private final AtomicLong storedSeq = new AtomicLong();
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private SequenceGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        MongoOperations mongoOperations = mock(MongoOperations.class);
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Counter.class))).thenAnswer(invocation -> {
+                    roundTrips.incrementAndGet();
+                    UpdateDefinition update = invocation.getArgument(1);
+                    Number inc = (Number) ((Document) update.getUpdateObject().get("$inc")).get("seq");
+                    Counter counter = new Counter();
+                    counter.setId("task");
+                    counter.setSeq(storedSeq.addAndGet(inc.longValue()));
+                    return counter;
+                });
+        generator = new SequenceGenerator(mongoOperations, BLOCK_SIZE);
+    }
+
+    @Test
+    void concurrentCreatorsGetUniqueIds() throws Exception {
+        int threads = 32;
+        int perThread = 20_000;
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertTrue(seen.add(generator.next("task")), "duplicate ID");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+
+            int total = threads * perThread;
+            assertEquals(total, seen.size());
+            // One round trip per block, not per ID
+            assertTrue(roundTrips.get() <= total / BLOCK_SIZE + threads,
+                    "round trips: " + roundTrips.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void bulkRangesDoNotOverlapSingleIds() throws Exception {
+        int threads = 16;
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int batch = 1 + t * 37; // mixes in-block, block-crossing and oversized batches
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        long first = generator.nextBlock("task", batch);
+                        for (long id = first; id < first + batch; id++) {
+                            assertTrue(seen.add(id), "duplicate ID " + id);
+                        }
+                        assertTrue(seen.add(generator.next("task")), "duplicate ID");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void oversizedBatchTakesOneRoundTrip() {
+        long first = generator.nextBlock("task", 500);
+        assertEquals(1, first);
+        assertEquals(1, roundTrips.get());
+        assertEquals(500, storedSeq.get());
+    }
+}